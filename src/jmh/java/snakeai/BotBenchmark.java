@@ -0,0 +1,64 @@
+package snakeai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a single call to SnakeBot.getMove for every bot on fixed board snapshots.
+ * <p>
+ * Asking for a move doesn't change the game, so every call sees the same position. The bot is
+ * initialized once per iteration rather than before every call, which would cost more than many of
+ * the calls themselves. Calls after the first see whatever the bot kept from the one before, as a
+ * real move along a planned path would, such as LookaheadBot's verdict for the path to the food.
+ * Run with "-prof gc" to also report the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BotBenchmark {
+    @Param({"SpacerBot", "GreedyTailBot", "LookaheadBot", "MctsBot", "GreedyBot", "CycleBot", "BruteBot", "RandomBot"})
+    public String bot;
+
+    @Param({"20", "64", "256"})
+    public int size;
+
+    @Param({"EMPTY", "HALF", "NEAR_FULL"})
+    public Snapshots.Fill fill;
+
+    private Game game;
+    private SnakeBot snake;
+    private Point head;
+
+    @Setup(Level.Trial)
+    public void setUpGame() {
+        this.snake = Bots.create(this.bot);
+        this.game = Snapshots.create(this.size, this.size, this.fill, 42, this.snake);
+        this.head = this.game.getHeadPos();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpBot() {
+        this.snake.initialize(this.game, this.head);
+    }
+
+    @Benchmark
+    public Direction getMove() {
+        return this.snake.getMove();
+    }
+}
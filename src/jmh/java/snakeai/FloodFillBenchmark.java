@@ -0,0 +1,62 @@
+package snakeai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures FloodFill counting every cell reachable from the head of the snake on fixed board
+ * snapshots, which is the most a single trap check can cost, and the trap check itself, which
+ * stops once the snake has enough room.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FloodFillBenchmark {
+    @Param({"20", "64", "256", "1024"})
+    public int size;
+
+    @Param({"EMPTY", "HALF", "NEAR_FULL"})
+    public Snapshots.Fill fill;
+
+    private Game game;
+    private FloodFill floodFill;
+    private int start;
+    private Direction move;
+
+    @Setup
+    public void setUp() {
+        this.game = Snapshots.create(this.size, this.size, this.fill, 42, Bots.create("RandomBot"));
+        this.floodFill = new FloodFill(this.size, this.size);
+        int head = this.game.getBody().head();
+        for (Direction d : Direction.values()) {
+            if (this.game.isSafe(this.game.neighbor(head, d))) {
+                this.move = d;
+                this.start = this.game.neighbor(head, d);
+            }
+        }
+    }
+
+    @Benchmark
+    public int countAll() {
+        return this.floodFill.countReachable(this.game, this.start, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Direction avoidTrap() {
+        return this.floodFill.avoidTrap(this.game, this.move);
+    }
+}
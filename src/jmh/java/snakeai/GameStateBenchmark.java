@@ -0,0 +1,66 @@
+package snakeai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures GameState on fixed board snapshots: applying a move and taking it back, which a search
+ * does for every state it looks at, and taking a snapshot and making a move on it, which copies
+ * only the pages the move touches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateBenchmark {
+    @Param({"20", "256", "1024"})
+    public int size;
+
+    @Param({"EMPTY", "HALF", "NEAR_FULL"})
+    public Snapshots.Fill fill;
+
+    private GameState state;
+    private Direction move;
+
+    @Setup
+    public void setUp() {
+        Game game = Snapshots.create(this.size, this.size, this.fill, 42, Bots.create("RandomBot"));
+        this.state = new GameState(this.size, this.size);
+        this.state.setSeed(42);
+        this.state.reset(game);
+        int head = game.getBody().head();
+        for (Direction d : Direction.values()) {
+            if (game.isSafe(game.neighbor(head, d))) {
+                this.move = d;
+            }
+        }
+    }
+
+    @Benchmark
+    public int applyUndo() {
+        this.state.apply(this.move);
+        int moves = this.state.getMoves();
+        this.state.undo();
+        return moves;
+    }
+
+    @Benchmark
+    public GameState snapshotApply() {
+        GameState snapshot = this.state.snapshot();
+        snapshot.apply(this.move);
+        return snapshot;
+    }
+}
@@ -0,0 +1,68 @@
+package snakeai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the open set data structures of Pathfinder by searching corner to corner across a
+ * seeded play area in which a fraction of the cells are blocked.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathfinderBenchmark {
+    @Param({"BINARY_HEAP", "BUCKET_QUEUE"})
+    public Pathfinder.Mode mode;
+
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    @Param({"0.0", "0.3"})
+    public double obstacles;
+
+    private Pathfinder pathfinder;
+    private Pathfinder.Traversal traversal;
+    private int start;
+    private int target;
+
+    @Setup
+    public void setUp() {
+        final boolean[] blocked = new boolean[this.size * this.size];
+        Random rand = new Random(42);
+        for (int i = 0; i < blocked.length; i++) {
+            blocked[i] = rand.nextDouble() < this.obstacles;
+        }
+        this.start = 0;
+        this.target = blocked.length - 1;
+        blocked[this.start] = false;
+        blocked[this.target] = false;
+
+        this.pathfinder = new Pathfinder(this.size, this.size, this.mode);
+        this.traversal = new Pathfinder.Traversal() {
+            @Override
+            public boolean canEnter(int cell) {
+                return !blocked[cell];
+            }
+        };
+    }
+
+    @Benchmark
+    public Direction findPath() {
+        return this.pathfinder.findPath(this.start, this.target, this.traversal);
+    }
+}
@@ -0,0 +1,80 @@
+package snakeai;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds fixed, seeded game positions for benchmarks.
+ */
+public final class Snapshots {
+    /**
+     * How much of the play area the snake covers.
+     */
+    public enum Fill {
+        /**
+         * A snake of length one.
+         */
+        EMPTY(0.0),
+        /**
+         * A snake covering half of the play area.
+         */
+        HALF(0.5),
+        /**
+         * A snake covering 90% of the play area.
+         */
+        NEAR_FULL(0.9);
+
+        public final double fraction;
+
+        Fill(double fraction) {
+            this.fraction = fraction;
+        }
+    }
+
+    private Snapshots() {
+    }
+
+    /**
+     * Creates a game in which the snake winds back and forth across the rows of the play area,
+     * starting at the top left, with a food piece on a random empty cell.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     * @param fill   How much of the play area the snake covers.
+     * @param seed   The seed used to place the food.
+     * @param bot    The bot that will play the game.
+     * @return The game, ready for the bot to make its first move.
+     */
+    public static Game create(int width, int height, Fill fill, long seed, SnakeBot bot) {
+        int cells = width * height;
+        int length = Math.max(1, Math.min(cells - 1, (int) (fill.fraction * cells)));
+
+        List<Point> body = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            body.add(serpentine(i, width));
+        }
+
+        Random rand = new Random(seed);
+        int foodIndex = length + rand.nextInt(cells - length);
+        Point food = serpentine(foodIndex, width);
+
+        Game game = new Game(width, height, rand);
+        game.reset(bot, body, food);
+        return game;
+    }
+
+    /**
+     * Returns the i-th cell of a path that winds back and forth across the rows of the play area.
+     *
+     * @param i     The position along the path.
+     * @param width The width of the play area in number of cells.
+     * @return The coordinates of the cell.
+     */
+    private static Point serpentine(int i, int width) {
+        int y = i / width;
+        int x = y % 2 == 0 ? i % width : width - 1 - i % width;
+        return new Point(x, y);
+    }
+}
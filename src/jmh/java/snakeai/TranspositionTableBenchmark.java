@@ -0,0 +1,57 @@
+package snakeai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up and storing values in a TranspositionTable holding a million entries, for
+ * every replacement policy. The table is shared by all benchmark threads, so running with "-t 4"
+ * measures it under contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranspositionTableBenchmark {
+    private static final int POSITIONS = 1 << 20;
+
+    @Param({"ALWAYS", "DEPTH_PREFERRED", "TWO_TIER"})
+    public TranspositionTable.Replacement replacement;
+
+    private TranspositionTable table;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        this.table = new TranspositionTable(POSITIONS, this.replacement);
+        for (int i = 0; i < POSITIONS; i++) {
+            this.table.put(Zobrist.head(i), i, i & 15);
+        }
+    }
+
+    @Benchmark
+    public int get() {
+        // Races on the counter only change which positions are looked up
+        int i = this.next++ & (POSITIONS - 1);
+        return this.table.get(Zobrist.head(i), 0, -1);
+    }
+
+    @Benchmark
+    public void put() {
+        int i = this.next++ & (POSITIONS - 1);
+        this.table.put(Zobrist.head(i), i, i & 15);
+    }
+}
@@ -0,0 +1,105 @@
+package snakeai;
+
+import java.util.Arrays;
+
+/**
+ * A bitboard recording which cells of the play area are occupied by the snake, using one bit per
+ * cell. See BoardView for the layout.
+ */
+public class BitBoard implements BoardView {
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final long[] words;
+
+    /**
+     * Creates an empty bitboard for a play area of the given size.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     */
+    public BitBoard(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.stride = width + 2;
+        this.words = new long[(int) (((long) this.stride * (height + 2) + 63) >>> 6)];
+        clear();
+    }
+
+    /**
+     * Marks every cell of the play area as unoccupied. The border stays occupied.
+     */
+    public void clear() {
+        Arrays.fill(this.words, -1L);
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                clear(x, y);
+            }
+        }
+    }
+
+    /**
+     * Marks the cell at the given coordinates as occupied.
+     *
+     * @param x The x-coordinate of the cell. Must be in bounds.
+     * @param y The y-coordinate of the cell. Must be in bounds.
+     */
+    public void set(int x, int y) {
+        int index = index(x, y);
+        this.words[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Marks the cell at the given coordinates as unoccupied.
+     *
+     * @param x The x-coordinate of the cell. Must be in bounds.
+     * @param y The y-coordinate of the cell. Must be in bounds.
+     */
+    public void clear(int x, int y) {
+        int index = index(x, y);
+        this.words[index >>> 6] &= ~(1L << index);
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public int getStride() {
+        return this.stride;
+    }
+
+    @Override
+    public int index(int x, int y) {
+        return (y + 1) * this.stride + x + 1;
+    }
+
+    @Override
+    public boolean isOccupied(int index) {
+        return (this.words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean isOccupied(int x, int y) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            return true;
+        }
+        return isOccupied(index(x, y));
+    }
+
+    @Override
+    public int getWordCount() {
+        return this.words.length;
+    }
+
+    @Override
+    public long getWord(int i) {
+        return this.words[i];
+    }
+}
@@ -0,0 +1,260 @@
+package snakeai;
+
+import java.awt.Point;
+
+/**
+ * A copy of the state of a game at one point in time that can be read by another thread while the
+ * game keeps playing. The board is copied word by word from the game's bitboard, so taking a
+ * snapshot is cheap even for large play areas.
+ * <p>
+ * A snapshot is not immutable: it can be refilled with a later state, so it must only be handed
+ * between threads through something that publishes it safely, such as an AtomicReference.
+ */
+public class BoardSnapshot {
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final long[] words;
+    private int food;
+    private int moves;
+    private int foodEaten;
+    private boolean over;
+    private boolean won;
+    private boolean measured;
+    private long medianMoveNanos;
+    private long p99MoveNanos;
+    private double expansionsPerMove;
+    private long fallbacks;
+    private double bytesPerMove;
+    private int deadlineMisses;
+
+    /**
+     * Creates a new snapshot of an empty play area.
+     *
+     * @param width  The width of the play area in cells.
+     * @param height The height of the play area in cells.
+     */
+    public BoardSnapshot(int width, int height) {
+        BitBoard empty = new BitBoard(width, height);
+        this.width = width;
+        this.height = height;
+        this.stride = empty.getStride();
+        this.words = new long[empty.getWordCount()];
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] = empty.getWord(i);
+        }
+        this.food = -1;
+    }
+
+    /**
+     * Returns whether this snapshot can hold the state of a play area of the given size.
+     *
+     * @param width  The width of the play area in cells.
+     * @param height The height of the play area in cells.
+     * @return True if the sizes match, false otherwise.
+     */
+    public boolean fits(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    /**
+     * Replaces the contents of this snapshot with the current state of the given game.
+     *
+     * @param game The game to copy, whose play area must be the size of this snapshot.
+     */
+    public void capture(Game game) {
+        BoardView board = game.getBoard();
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] = board.getWord(i);
+        }
+        Point foodPos = game.getFoodPos();
+        this.food = foodPos == null ? -1 : board.index(foodPos.x, foodPos.y);
+        this.moves = game.getMoves();
+        this.foodEaten = game.getFoodEaten();
+        this.over = game.isOver();
+        this.won = game.isWon();
+        this.deadlineMisses = game.getDeadlineMisses();
+
+        MoveMetrics metrics = game.getMetrics();
+        this.measured = metrics != null;
+        if (this.measured) {
+            this.medianMoveNanos = metrics.getLatency().getPercentile(50);
+            this.p99MoveNanos = metrics.getLatency().getPercentile(99);
+            this.expansionsPerMove = metrics.getExpansionsPerMove();
+            this.fallbacks = metrics.getFallbacks();
+            this.bytesPerMove = metrics.getBytesPerMove();
+        }
+    }
+
+    /**
+     * Returns the value of the cell at the given coordinates.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The value of the cell. One of Game.EMPTY, Game.FOOD, or Game.SNAKE.
+     */
+    public int getCell(int x, int y) {
+        int index = (y + 1) * this.stride + x + 1;
+        if ((this.words[index >>> 6] & (1L << index)) != 0) {
+            return Game.SNAKE;
+        }
+        return index == this.food ? Game.FOOD : Game.EMPTY;
+    }
+
+    /**
+     * Returns the number of cells in a row of the board, including the two padding cells, so that
+     * the cell at (x, y) has the bit index (y + 1) * stride + x + 1.
+     *
+     * @return The stride of the board's bit indices.
+     */
+    public int getStride() {
+        return this.stride;
+    }
+
+    /**
+     * Returns the number of 64-bit words the board's bits are stored in.
+     *
+     * @return The number of words.
+     */
+    public int getWordCount() {
+        return this.words.length;
+    }
+
+    /**
+     * Returns a word of the board's bits, in which a set bit is a cell occupied by the snake or
+     * padding around the play area.
+     *
+     * @param i The index of the word.
+     * @return The word.
+     */
+    public long getWord(int i) {
+        return this.words[i];
+    }
+
+    /**
+     * Returns the bit index of the food's cell.
+     *
+     * @return The bit index of the food, or -1 if there was no food.
+     */
+    public int getFood() {
+        return this.food;
+    }
+
+    /**
+     * Returns the width of the play area.
+     *
+     * @return The width of the play area in cells.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the play area.
+     *
+     * @return The height of the play area in cells.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the number of moves made when the snapshot was taken.
+     *
+     * @return The number of moves made.
+     */
+    public int getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Returns the number of food pieces eaten when the snapshot was taken.
+     *
+     * @return The number of food pieces eaten.
+     */
+    public int getFoodEaten() {
+        return this.foodEaten;
+    }
+
+    /**
+     * Returns whether the game had ended when the snapshot was taken.
+     *
+     * @return True if the game had ended, false otherwise.
+     */
+    public boolean isOver() {
+        return this.over;
+    }
+
+    /**
+     * Returns whether the game had been won when the snapshot was taken.
+     *
+     * @return True if the snake had filled the play area, false otherwise.
+     */
+    public boolean isWon() {
+        return this.won;
+    }
+
+    /**
+     * Returns the number of moves the bot returned after their deadline.
+     *
+     * @return The number of deadline misses, or 0 if the game had no move budget.
+     */
+    public int getDeadlineMisses() {
+        return this.deadlineMisses;
+    }
+
+    /**
+     * Returns whether the game's moves were measured, in which case the move metrics of this
+     * snapshot are valid.
+     *
+     * @return True if the game had metrics attached, false otherwise.
+     */
+    public boolean isMeasured() {
+        return this.measured;
+    }
+
+    /**
+     * Returns the median time the bot took to make a move.
+     *
+     * @return The median move time in nanoseconds.
+     */
+    public long getMedianMoveNanos() {
+        return this.medianMoveNanos;
+    }
+
+    /**
+     * Returns the 99th percentile of the time the bot took to make a move.
+     *
+     * @return The 99th percentile move time in nanoseconds.
+     */
+    public long getP99MoveNanos() {
+        return this.p99MoveNanos;
+    }
+
+    /**
+     * Returns the average number of nodes the bot's searches expanded per move.
+     *
+     * @return The nodes expanded per move, or NaN if the bot doesn't search.
+     */
+    public double getExpansionsPerMove() {
+        return this.expansionsPerMove;
+    }
+
+    /**
+     * Returns the number of moves on which the bot fell back from its main strategy.
+     *
+     * @return The number of fallback moves, or -1 if the bot doesn't search.
+     */
+    public long getFallbacks() {
+        return this.fallbacks;
+    }
+
+    /**
+     * Returns the average number of bytes the bot allocated per move.
+     *
+     * @return The bytes allocated per move, or NaN if allocations can't be counted.
+     */
+    public double getBytesPerMove() {
+        return this.bytesPerMove;
+    }
+}
@@ -0,0 +1,75 @@
+package snakeai;
+
+/**
+ * A read-only view of which cells of the play area are occupied by the snake.
+ * <p>
+ * The play area is surrounded by a border of occupied cells, so a cell next to an in-bounds cell
+ * can be checked with a single bit test and no bounds check. Bits are addressed by their padded
+ * index, (y + 1) * stride + (x + 1), and stored 64 to a word, lowest bit first, so that searches
+ * can also process whole words at once.
+ */
+public interface BoardView {
+    /**
+     * Returns the width of the play area, not including the border.
+     *
+     * @return The width of the play area in number of cells.
+     */
+    int getWidth();
+
+    /**
+     * Returns the height of the play area, not including the border.
+     *
+     * @return The height of the play area in number of cells.
+     */
+    int getHeight();
+
+    /**
+     * Returns the distance between vertically adjacent cells in padded indices, which is the width
+     * of the play area plus the border on both sides.
+     *
+     * @return The number of padded indices per row.
+     */
+    int getStride();
+
+    /**
+     * Returns the padded index of the given coordinates.
+     *
+     * @param x The x-coordinate, between -1 and the width inclusive.
+     * @param y The y-coordinate, between -1 and the height inclusive.
+     * @return The padded index of the coordinates.
+     */
+    int index(int x, int y);
+
+    /**
+     * Returns whether the cell with the given padded index is occupied.
+     *
+     * @param index The padded index of the cell. Must be within the padded play area.
+     * @return True if a snake part or the border is in the cell, false otherwise.
+     */
+    boolean isOccupied(int index);
+
+    /**
+     * Returns whether the cell at the given coordinates is occupied.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if the cell is out of bounds or a snake part is in it, false otherwise.
+     */
+    boolean isOccupied(int x, int y);
+
+    /**
+     * Returns the number of words holding the bits of the padded play area.
+     *
+     * @return The number of words.
+     */
+    int getWordCount();
+
+    /**
+     * Returns 64 bits of the padded play area.
+     *
+     * @param i The index of the word. Word i holds the bits of padded indices 64 * i to
+     *          64 * i + 63.
+     * @return The word. Bits past the end of the padded play area are set.
+     */
+    long getWord(int i);
+}
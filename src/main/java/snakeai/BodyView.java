@@ -0,0 +1,74 @@
+package snakeai;
+
+/**
+ * A read-only view of the cells the snake occupies, in order from its tail to its head.
+ * <p>
+ * Cells are identified by their index, y * width + x. All queries take constant time.
+ */
+public interface BodyView {
+    /**
+     * Returns the number of cells the snake occupies.
+     *
+     * @return The length of the snake.
+     */
+    int length();
+
+    /**
+     * Returns the cell of the snake's head.
+     *
+     * @return The index of the head's cell.
+     */
+    int head();
+
+    /**
+     * Returns the cell of the snake's tail.
+     *
+     * @return The index of the tail's cell.
+     */
+    int tail();
+
+    /**
+     * Returns the cell of the given part of the snake, counting from the tail.
+     *
+     * @param i The position of the part, where 0 is the tail and length() - 1 is the head.
+     * @return The index of the part's cell.
+     * @throws IndexOutOfBoundsException If there is no part at the given position.
+     */
+    int get(int i);
+
+    /**
+     * Returns the cell of the given part of the snake, counting from the head.
+     *
+     * @param i The position of the part, where 0 is the head and length() - 1 is the tail.
+     * @return The index of the part's cell.
+     * @throws IndexOutOfBoundsException If there is no part at the given position.
+     */
+    int getFromHead(int i);
+
+    /**
+     * Returns whether the snake occupies the given cell.
+     *
+     * @param cell The index of the cell.
+     * @return True if a part of the snake is in the cell, false otherwise.
+     */
+    boolean contains(int cell);
+
+    /**
+     * Returns the position of the part of the snake in the given cell, counting from the tail.
+     *
+     * @param cell The index of the cell.
+     * @return The position of the part in the cell, where 0 is the tail, or -1 if the snake does
+     * not occupy the cell.
+     */
+    int indexOf(int cell);
+
+    /**
+     * Returns how many moves it will take for the given cell to be vacated if the snake doesn't
+     * eat.
+     *
+     * @param cell The index of the cell.
+     * @return The number of moves until the cell is free, where 1 means it is freed by the next
+     * move, or 0 if the snake does not occupy the cell.
+     */
+    int movesUntilVacated(int cell);
+}
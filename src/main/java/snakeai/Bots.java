@@ -0,0 +1,154 @@
+package snakeai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The bots available to play the game. Bots keep per-game state, so every game needs its own
+ * instance; this class creates fresh ones by name.
+ */
+public final class Bots {
+    /**
+     * Names of all available bots, in the order they are offered to the user.
+     */
+    public static final String[] NAMES = {
+            "SpacerBot", "GreedyTailBot", "LookaheadBot", "MctsBot", "GreedyBot", "CycleBot", "BruteBot", "RandomBot"
+    };
+
+    /**
+     * Names of the bots that repair their previous search in the INCREMENTAL search mode instead of
+     * searching from scratch.
+     */
+    public static final String[] INCREMENTAL_NAMES = {"SpacerBot", "GreedyBot"};
+
+    private Bots() {
+    }
+
+    /**
+     * Creates a new instance of the bot with the given name.
+     *
+     * @param name The name of the bot, as returned by its toString method.
+     * @return A new, uninitialized instance of the bot.
+     * @throws IllegalArgumentException If there is no bot with the given name.
+     */
+    public static SnakeBot create(String name) {
+        return create(name, Pathfinder.Mode.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a new instance of the bot with the given name. Bots that search for paths use the
+     * given data structure for their searches; other bots ignore it.
+     *
+     * @param name       The name of the bot, as returned by its toString method.
+     * @param searchMode The data structure used by the bot's searches.
+     * @return A new, uninitialized instance of the bot.
+     * @throws IllegalArgumentException If there is no bot with the given name.
+     */
+    public static SnakeBot create(String name, Pathfinder.Mode searchMode) {
+        return create(name, searchMode, false);
+    }
+
+    /**
+     * Creates a new instance of the bot with the given name. Bots that search for paths use the
+     * given data structure for their searches and, if asked to, check their moves for traps with
+     * a flood fill; other bots ignore both.
+     *
+     * @param name       The name of the bot, as returned by its toString method.
+     * @param searchMode The data structure used by the bot's searches.
+     * @param avoidTraps Whether bots that search should replace moves into pockets too small for
+     *                   the snake.
+     * @return A new, uninitialized instance of the bot.
+     * @throws IllegalArgumentException If there is no bot with the given name.
+     */
+    public static SnakeBot create(String name, Pathfinder.Mode searchMode, boolean avoidTraps) {
+        return create(name, searchMode, avoidTraps, 0);
+    }
+
+    /**
+     * Creates a new instance of the bot with the given name. Bots that search for paths use the
+     * given data structure for their searches and, if asked to, check their moves for traps, and
+     * MctsBot searches on the given number of threads; other bots ignore these.
+     *
+     * @param name          The name of the bot, as returned by its toString method.
+     * @param searchMode    The data structure used by the bot's searches.
+     * @param avoidTraps    Whether bots that search should replace moves into pockets too small for
+     *                      the snake.
+     * @param searchThreads The number of threads MctsBot searches on, or 0 for one per core.
+     * @return A new, uninitialized instance of the bot.
+     * @throws IllegalArgumentException If there is no bot with the given name.
+     */
+    public static SnakeBot create(String name, Pathfinder.Mode searchMode, boolean avoidTraps, int searchThreads) {
+        switch (name) {
+            case "SpacerBot":
+                return new SpacerBot(searchMode, avoidTraps);
+            case "GreedyTailBot":
+                return new GreedyTailBot(searchMode, avoidTraps);
+            case "LookaheadBot":
+                return new LookaheadBot(searchMode);
+            case "MctsBot":
+                return searchThreads > 0 ? new MctsBot(searchThreads, MctsBot.DEFAULT_ROLLOUTS) : new MctsBot();
+            case "GreedyBot":
+                return new GreedyBot(searchMode, avoidTraps);
+            case "CycleBot":
+                return new CycleBot();
+            case "BruteBot":
+                return new BruteBot();
+            case "RandomBot":
+                return new RandomBot();
+            default:
+                throw new IllegalArgumentException("Unknown bot: " + name);
+        }
+    }
+
+    /**
+     * Creates a new instance of every available bot.
+     *
+     * @return New instances of all bots, in the same order as NAMES.
+     */
+    public static List<SnakeBot> createAll() {
+        return createAll(Pathfinder.Mode.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a new instance of every available bot. Bots that search for paths use the given
+     * data structure for their searches.
+     *
+     * @param searchMode The data structure used by the bots' searches.
+     * @return New instances of all bots, in the same order as NAMES.
+     */
+    public static List<SnakeBot> createAll(Pathfinder.Mode searchMode) {
+        return createAll(searchMode, false);
+    }
+
+    /**
+     * Creates a new instance of every available bot. Bots that search for paths use the given
+     * data structure for their searches and, if asked to, check their moves for traps.
+     *
+     * @param searchMode The data structure used by the bots' searches.
+     * @param avoidTraps Whether bots that search should replace moves into pockets too small for
+     *                   the snake.
+     * @return New instances of all bots, in the same order as NAMES.
+     */
+    public static List<SnakeBot> createAll(Pathfinder.Mode searchMode, boolean avoidTraps) {
+        return createAll(searchMode, avoidTraps, 0);
+    }
+
+    /**
+     * Creates a new instance of every available bot. Bots that search for paths use the given
+     * data structure for their searches and, if asked to, check their moves for traps, and
+     * MctsBot searches on the given number of threads.
+     *
+     * @param searchMode    The data structure used by the bots' searches.
+     * @param avoidTraps    Whether bots that search should replace moves into pockets too small for
+     *                      the snake.
+     * @param searchThreads The number of threads MctsBot searches on, or 0 for one per core.
+     * @return New instances of all bots, in the same order as NAMES.
+     */
+    public static List<SnakeBot> createAll(Pathfinder.Mode searchMode, boolean avoidTraps, int searchThreads) {
+        List<SnakeBot> bots = new ArrayList<>();
+        for (String name : NAMES) {
+            bots.add(create(name, searchMode, avoidTraps, searchThreads));
+        }
+        return bots;
+    }
+}
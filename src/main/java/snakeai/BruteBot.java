@@ -1,3 +1,5 @@
+package snakeai;
+
 import java.awt.Point;
 
 /**
@@ -6,34 +8,41 @@ import java.awt.Point;
  * This bot is guaranteed to win if the playing grid dimensions are even.
  */
 public class BruteBot implements SnakeBot {
-    private Point head;
+    private GameView game;
+    private BodyView body;
+    private NeighborTable neighbors;
 
     @Override
-    public void initialize(Point start) {
-        this.head = start;
+    public void initialize(GameView game, Point start) {
+        this.game = game;
+        this.body = game.getBody();
+        this.neighbors = game.getNeighbors();
     }
 
     @Override
     public Direction getMove() {
         Direction nextMove;
-        int parity = this.head.y % 2;
+        int head = this.body.head();
+        int x = this.neighbors.getX(head);
+        int y = this.neighbors.getY(head);
+        int parity = y % 2;
 
-        if (this.head.x == 0) {
-            if (this.head.y == 0) {
+        if (x == 0) {
+            if (y == 0) {
                 nextMove = Direction.RIGHT;
             } else {
                 nextMove = Direction.UP;
             }
         } else {
             if (parity == 0) {
-                if (this.head.x == Main.getGridWidth() - 1) {
+                if (x == this.game.getGridWidth() - 1) {
                     nextMove = Direction.DOWN;
                 } else {
                     nextMove = Direction.RIGHT;
                 }
             } else { // parity == 1
-                if (this.head.x == 1) {
-                    if (this.head.y == Main.getGridHeight() - 1) {
+                if (x == 1) {
+                    if (y == this.game.getGridHeight() - 1) {
                         nextMove = Direction.LEFT;
                     } else {
                         nextMove = Direction.DOWN;
@@ -44,7 +53,6 @@ public class BruteBot implements SnakeBot {
             }
         }
 
-        this.head = Main.get(this.head, nextMove);
         return nextMove;
     }
 
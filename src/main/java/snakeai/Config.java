@@ -0,0 +1,367 @@
+package snakeai;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Settings for running the game, read from command line flags and an optional properties file.
+ * <p>
+ * Every setting can be given as a flag, such as "--width 64", or as a property of the same name
+ * without the dashes, such as "width=64", in a file named by "--config". Flags override the file.
+ * <ul>
+ * <li>width, height: The size of the play area in number of cells.</li>
+ * <li>cell-size: The size of each grid cell in pixels. Ignored when headless.</li>
+ * <li>delay: The delay between game steps in milliseconds. Ignored when headless.</li>
+ * <li>bot: The name of the bot to play with. When headless, all bots play if not given.</li>
+ * <li>headless: Play a tournament without a window instead of showing a single game.</li>
+ * <li>games: The number of games to play per bot when headless.</li>
+ * <li>threads: The number of threads to play games on when headless.</li>
+ * <li>search-threads: The number of threads MctsBot searches on in each game, or 0 to give each
+ * game an equal share of the cores: all of them in the window, and the cores divided by the games
+ * played at once when headless.</li>
+ * <li>seed: The seed that all game seeds are derived from when headless.</li>
+ * <li>search: The open set of the bots' path searches, BINARY_HEAP or BUCKET_QUEUE, or
+ * INCREMENTAL to have the bots that support it repair their previous search.</li>
+ * <li>avoid-traps: Whether GreedyBot, SpacerBot and GreedyTailBot check each move with a flood
+ * fill and replace moves that leave the snake too little room, true or false.</li>
+ * <li>max-moves: The maximum number of moves in a headless game.</li>
+ * <li>move-budget: The time the bot may take for each move in microseconds, or 0 for no limit.
+ * Bots that support deadlines cut their searches short to stay within it, and moves that take
+ * longer anyway are counted as deadline misses.</li>
+ * <li>record: A directory to save a log of every game to, which can be replayed.</li>
+ * <li>replay: A game log to replay instead of playing new games. When headless, the log is
+ * replayed as fast as possible and the final state is printed.</li>
+ * <li>seek: The move of the replayed game to fast-forward to before showing it.</li>
+ * <li>metrics: A file to write the move time histogram, node expansions, fallbacks and
+ * allocations of each bot to when headless, as JSON if the name ends in ".json" and as CSV
+ * otherwise. Moves are only measured if this is given.</li>
+ * </ul>
+ */
+public class Config {
+    private int width = Main.GRID_WIDTH;
+    private int height = Main.GRID_HEIGHT;
+    private int cellSize = Main.CELL_SIZE;
+    private int delay = Main.DEFAULT_DELAY;
+    private String bot = null;
+    private boolean headless = false;
+    private int games = Tournament.DEFAULT_GAMES;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int searchThreads = 0;
+    private long seed = 0;
+    private Pathfinder.Mode searchMode = Pathfinder.Mode.BINARY_HEAP;
+    private boolean avoidTraps = false;
+    private long maxMoves = Long.MAX_VALUE;
+    private String metricsFile = null;
+    private long moveBudget = 0;
+    private String recordDirectory = null;
+    private String replayFile = null;
+    private long seek = 0;
+
+    /**
+     * Reads settings from the given command line arguments and the config file they name, if any.
+     *
+     * @param args The command line arguments.
+     * @return The settings. Settings that are not given keep their defaults.
+     * @throws IllegalArgumentException If a flag or property is unknown or has an invalid value.
+     * @throws IOException              If the config file can't be read.
+     */
+    public static Config parse(String[] args) throws IOException {
+        Config config = new Config();
+
+        // Load the config file first so that flags override it
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--config")) {
+                Properties properties = new Properties();
+                try (InputStream in = new FileInputStream(args[i + 1])) {
+                    properties.load(in);
+                }
+                for (String key : properties.stringPropertyNames()) {
+                    config.set(key, properties.getProperty(key).trim());
+                }
+            }
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            if (key.equals("headless")) {
+                config.headless = true;
+            } else if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            } else if (!key.equals("config")) {
+                config.set(key, args[++i]);
+            } else {
+                i++;
+            }
+        }
+
+        config.validate();
+        return config;
+    }
+
+    /**
+     * Sets the setting with the given name.
+     *
+     * @param key   The name of the setting.
+     * @param value The value of the setting.
+     * @throws IllegalArgumentException If the setting is unknown or the value is invalid.
+     */
+    private void set(String key, String value) {
+        switch (key) {
+            case "width":
+                this.width = Integer.parseInt(value);
+                break;
+            case "height":
+                this.height = Integer.parseInt(value);
+                break;
+            case "cell-size":
+                this.cellSize = Integer.parseInt(value);
+                break;
+            case "delay":
+                this.delay = Integer.parseInt(value);
+                break;
+            case "bot":
+                Bots.create(value); // Fail early on unknown bots
+                this.bot = value;
+                break;
+            case "headless":
+                this.headless = Boolean.parseBoolean(value);
+                break;
+            case "games":
+                this.games = Integer.parseInt(value);
+                break;
+            case "threads":
+                this.threads = Integer.parseInt(value);
+                break;
+            case "search-threads":
+                this.searchThreads = Integer.parseInt(value);
+                break;
+            case "seed":
+                this.seed = Long.parseLong(value);
+                break;
+            case "search":
+                this.searchMode = Pathfinder.Mode.valueOf(value);
+                break;
+            case "avoid-traps":
+                this.avoidTraps = Boolean.parseBoolean(value);
+                break;
+            case "max-moves":
+                this.maxMoves = Long.parseLong(value);
+                break;
+            case "metrics":
+                this.metricsFile = value;
+                break;
+            case "move-budget":
+                this.moveBudget = Long.parseLong(value);
+                break;
+            case "record":
+                this.recordDirectory = value;
+                break;
+            case "replay":
+                this.replayFile = value;
+                break;
+            case "seek":
+                this.seek = Long.parseLong(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown setting: " + key);
+        }
+    }
+
+    /**
+     * Checks that all settings are within their allowed ranges.
+     *
+     * @throws IllegalArgumentException If a setting is out of range.
+     */
+    private void validate() {
+        if (this.width <= 0 || this.height <= 0 || this.cellSize <= 0) {
+            throw new IllegalArgumentException("Grid dimensions and cell sizes must be positive.");
+        }
+        if ((long) this.width * this.height > Integer.MAX_VALUE / Direction.COUNT) {
+            throw new IllegalArgumentException("The play area has too many cells.");
+        }
+        if (this.delay < 0) {
+            throw new IllegalArgumentException("The delay must not be negative.");
+        }
+        if (this.searchThreads < 0) {
+            throw new IllegalArgumentException("The number of search threads must not be negative.");
+        }
+        if (this.games <= 0 || this.threads <= 0 || this.maxMoves <= 0) {
+            throw new IllegalArgumentException("Game, thread and move counts must be positive.");
+        }
+        if (this.moveBudget < 0 || this.moveBudget > Long.MAX_VALUE / 1000) {
+            throw new IllegalArgumentException("The move budget must not be negative or too large.");
+        }
+        if (this.seek < 0) {
+            throw new IllegalArgumentException("The move to seek to must not be negative.");
+        }
+    }
+
+    /**
+     * Returns the width of the play area.
+     *
+     * @return The width of the play area in number of cells.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the play area.
+     *
+     * @return The height of the play area in number of cells.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the size of each grid cell.
+     *
+     * @return The size of each grid cell in pixels.
+     */
+    public int getCellSize() {
+        return this.cellSize;
+    }
+
+    /**
+     * Returns the delay between game steps.
+     *
+     * @return The delay between game steps in milliseconds.
+     */
+    public int getDelay() {
+        return this.delay;
+    }
+
+    /**
+     * Returns the name of the selected bot.
+     *
+     * @return The name of the selected bot, or null if none was selected.
+     */
+    public String getBot() {
+        return this.bot;
+    }
+
+    /**
+     * Returns whether to play without a window.
+     *
+     * @return True if a tournament should be played without a window, false otherwise.
+     */
+    public boolean isHeadless() {
+        return this.headless;
+    }
+
+    /**
+     * Returns the number of games to play per bot when headless.
+     *
+     * @return The number of games to play per bot.
+     */
+    public int getGames() {
+        return this.games;
+    }
+
+    /**
+     * Returns the number of threads to play games on when headless.
+     *
+     * @return The number of threads to play games on.
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Returns the number of threads MctsBot searches on in each game.
+     *
+     * @return The number of search threads, or 0 to share the cores equally between the games
+     * played at once.
+     */
+    public int getSearchThreads() {
+        return this.searchThreads;
+    }
+
+    /**
+     * Returns the seed that all game seeds are derived from when headless.
+     *
+     * @return The seed of the tournament.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the data structure used by the bots' path searches.
+     *
+     * @return The open set mode of the bots' searches.
+     */
+    public Pathfinder.Mode getSearchMode() {
+        return this.searchMode;
+    }
+
+    /**
+     * Returns whether the bots that search should check their moves for traps.
+     *
+     * @return True if moves into pockets too small for the snake should be replaced, false
+     * otherwise.
+     */
+    public boolean isAvoidingTraps() {
+        return this.avoidTraps;
+    }
+
+    /**
+     * Returns the maximum number of moves in a headless game.
+     *
+     * @return The maximum number of moves in a game.
+     */
+    public long getMaxMoves() {
+        return this.maxMoves;
+    }
+
+    /**
+     * Returns the file to write the move metrics of a headless tournament to.
+     *
+     * @return The name of the metrics file, or null if moves should not be measured.
+     */
+    public String getMetricsFile() {
+        return this.metricsFile;
+    }
+
+    /**
+     * Returns the time the bot may take for each move.
+     *
+     * @return The move budget in microseconds, or 0 for no limit.
+     */
+    public long getMoveBudget() {
+        return this.moveBudget;
+    }
+
+    /**
+     * Returns the directory to save a log of every game to.
+     *
+     * @return The name of the directory, or null if games should not be recorded.
+     */
+    public String getRecordDirectory() {
+        return this.recordDirectory;
+    }
+
+    /**
+     * Returns the game log to replay.
+     *
+     * @return The name of the log file, or null if new games should be played.
+     */
+    public String getReplayFile() {
+        return this.replayFile;
+    }
+
+    /**
+     * Returns the move of the replayed game to fast-forward to.
+     *
+     * @return The number of moves to skip at the start of the replay.
+     */
+    public long getSeek() {
+        return this.seek;
+    }
+}
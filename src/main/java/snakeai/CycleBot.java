@@ -0,0 +1,208 @@
+package snakeai;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * Strategy: Travel a fixed Hamiltonian cycle, but skip ahead along it towards the food while the
+ * snake is short enough for that to be safe.
+ * <p>
+ * The snake always lies along the cycle in order, so every cell between its head and its tail in
+ * cycle order is empty. Moving to a neighboring cell further ahead on the cycle keeps this true
+ * as long as that cell is not past the tail, so shortcuts never give up the guaranteed win. Some
+ * slack is left before the tail for the snake to grow into, and no shortcuts are taken once half
+ * of the play area is filled.
+ * <p>
+ * The cycle is computed once per play area size, and each move looks at only the four neighbors
+ * of the head, so moves take constant time and allocate nothing. A Hamiltonian cycle exists if
+ * either dimension is even; if both are odd, the cycle leaves out the last row, and the snake can
+ * never reach food there.
+ */
+public class CycleBot implements SnakeBot {
+    // Extra empty cells kept before the tail on top of the snake's length
+    private static final int SAFETY_MARGIN = 3;
+
+    private GameView game;
+    private BodyView body;
+    private NeighborTable neighbors;
+    private int width;
+    private int height;
+    private int[] positions; // Position of each cell on the cycle, or -1 if not on it
+    private int[] successors; // Ordinal of the direction to the next cell on the cycle
+    private int cycleLength;
+
+    @Override
+    public void initialize(GameView game, Point start) {
+        this.game = game;
+        this.body = game.getBody();
+        this.neighbors = game.getNeighbors();
+        if (this.positions == null || this.width != game.getGridWidth() || this.height != game.getGridHeight()) {
+            this.width = game.getGridWidth();
+            this.height = game.getGridHeight();
+            buildCycle();
+        }
+    }
+
+    @Override
+    public Direction getMove() {
+        int head = this.body.head();
+        int headPosition = this.positions[head];
+        int length = this.body.length();
+
+        int shortcut = maxShortcut(headPosition, length);
+        int bestDirection = -1;
+        int bestDistance = 0;
+        for (int d = 0; d < Direction.COUNT; d++) {
+            int neighbor = this.neighbors.get(head, d);
+            if (!this.game.isSafe(neighbor)) {
+                continue;
+            }
+            int position = this.positions[neighbor];
+            if (position == -1) {
+                continue;
+            }
+            int distance = distance(headPosition, position);
+            boolean allowed = d == this.successors[head] || distance <= shortcut;
+            if (allowed && distance > bestDistance) {
+                bestDirection = d;
+                bestDistance = distance;
+            }
+        }
+        if (bestDirection != -1) {
+            return Direction.get(bestDirection);
+        }
+
+        // Only reachable if the snake did not start out lying along the cycle
+        for (int d = 0; d < Direction.COUNT; d++) {
+            if (this.game.isSafe(this.neighbors.get(head, d))) {
+                return Direction.get(d);
+            }
+        }
+        return Direction.get(this.successors[head]);
+    }
+
+    /**
+     * Returns how far ahead along the cycle the head may move this turn.
+     *
+     * @param headPosition The position of the head on the cycle.
+     * @param length       The length of the snake.
+     * @return The largest distance along the cycle that a move may skip to.
+     */
+    private int maxShortcut(int headPosition, int length) {
+        Point food = this.game.getFoodPos();
+        if (food == null || headPosition == -1) {
+            return 0;
+        }
+        int foodPosition = this.positions[food.y * this.width + food.x];
+        if (foodPosition == -1) {
+            return 0;
+        }
+        int toFood = distance(headPosition, foodPosition);
+        int toTail = length == 1 ? this.cycleLength : distance(headPosition, this.positions[this.body.tail()]);
+        int empty = this.cycleLength - length;
+        if (empty < this.cycleLength / 2) {
+            return 0;
+        }
+
+        int available = toTail - length - SAFETY_MARGIN;
+        if (toFood < toTail) {
+            // Leave room for the part the snake grows when it eats, and more while the snake is
+            // about to use up much of the free space ahead of it
+            available--;
+            if ((toTail - available) * 4 > empty) {
+                available -= 10;
+            }
+        }
+        return Math.min(available, toFood);
+    }
+
+    /**
+     * Returns the number of moves it takes to get from one position on the cycle to another by
+     * following the cycle.
+     *
+     * @param from The position to start from.
+     * @param to   The position to get to.
+     * @return The distance along the cycle, between 0 and the cycle length - 1.
+     */
+    private int distance(int from, int to) {
+        int distance = to - from;
+        return distance < 0 ? distance + this.cycleLength : distance;
+    }
+
+    /**
+     * Computes the Hamiltonian cycle of the play area. The cycle runs along the first row, snakes
+     * back and forth over the remaining rows without entering the first column, and returns up the
+     * first column. Rows and columns are swapped if that gives an even number of rows.
+     */
+    private void buildCycle() {
+        boolean transpose = this.height % 2 != 0 && this.width % 2 == 0;
+        int rows = transpose ? this.width : this.height;
+        int columns = transpose ? this.height : this.width;
+        if (rows % 2 != 0 && rows > 1) {
+            // Neither dimension is even, so leave out the last row
+            rows--;
+        }
+
+        this.positions = new int[this.width * this.height];
+        this.successors = new int[this.width * this.height];
+        Arrays.fill(this.positions, -1);
+        int[] order = new int[rows * columns];
+        int n = 0;
+        for (int column = 0; column < columns; column++) {
+            order[n++] = cell(column, 0, transpose);
+        }
+        for (int row = 1; row < rows; row++) {
+            for (int i = 1; i < columns; i++) {
+                int column = row % 2 == 1 ? columns - i : i;
+                order[n++] = cell(column, row, transpose);
+            }
+        }
+        for (int row = rows - 1; row >= 1; row--) {
+            order[n++] = cell(0, row, transpose);
+        }
+
+        this.cycleLength = n;
+        for (int i = 0; i < n; i++) {
+            int cell = order[i];
+            int next = order[(i + 1) % n];
+            this.positions[cell] = i;
+            this.successors[cell] = directionTo(cell, next);
+        }
+    }
+
+    /**
+     * Returns the index of the cell in the given row and column of the cycle's grid.
+     *
+     * @param column    The column of the cell.
+     * @param row       The row of the cell.
+     * @param transpose Whether the cycle's rows are the columns of the play area.
+     * @return The index of the cell in the play area.
+     */
+    private int cell(int column, int row, boolean transpose) {
+        return transpose ? column * this.width + row : row * this.width + column;
+    }
+
+    /**
+     * Returns the direction from one cell to an adjacent one.
+     *
+     * @param from The index of the cell to move from.
+     * @param to   The index of the cell to move to.
+     * @return The ordinal of the direction of the move, or the ordinal of UP if the cells are not
+     * adjacent, which only happens when the play area has no Hamiltonian cycle.
+     */
+    private int directionTo(int from, int to) {
+        int dx = to % this.width - from % this.width;
+        int dy = to / this.width - from / this.width;
+        for (int d = 0; d < Direction.COUNT; d++) {
+            if (Direction.get(d).getDx() == dx && Direction.get(d).getDy() == dy) {
+                return d;
+            }
+        }
+        return Direction.UP.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        return "CycleBot";
+    }
+}
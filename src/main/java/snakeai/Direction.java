@@ -0,0 +1,102 @@
+package snakeai;
+
+import java.util.Random;
+
+/**
+ * Directions a snake can move in.
+ * <p>
+ * Loops over all directions should count from 0 to COUNT and use get, which returns a cached
+ * constant, rather than call values(), which copies the array of constants every time. Likewise,
+ * randomOrder picks one of the precomputed orderings of the directions instead of shuffling a new
+ * list.
+ */
+public enum Direction {
+    UP(0, -1), RIGHT(1, 0), DOWN(0, 1), LEFT(-1, 0);
+
+    /**
+     * The number of directions.
+     */
+    public static final int COUNT = 4;
+
+    private static final Direction[] VALUES = values();
+    private static final Direction[] OPPOSITES = {DOWN, LEFT, UP, RIGHT};
+    private static final Direction[][] PERMUTATIONS = permutations();
+
+    private final int dx;
+    private final int dy;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /**
+     * Returns the direction with the given ordinal.
+     *
+     * @param ordinal The ordinal of the direction, between 0 and COUNT - 1.
+     * @return The direction with the given ordinal.
+     */
+    public static Direction get(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Returns all directions in a uniformly random order. The returned array is shared and must
+     * not be modified.
+     *
+     * @param rand The random number generator to use.
+     * @return A random ordering of all directions.
+     */
+    public static Direction[] randomOrder(Random rand) {
+        return PERMUTATIONS[rand.nextInt(PERMUTATIONS.length)];
+    }
+
+    /**
+     * Returns every ordering of the directions.
+     *
+     * @return All COUNT! permutations of the directions.
+     */
+    private static Direction[][] permutations() {
+        Direction[][] permutations = new Direction[24][];
+        int n = 0;
+        for (Direction a : VALUES) {
+            for (Direction b : VALUES) {
+                for (Direction c : VALUES) {
+                    for (Direction d : VALUES) {
+                        if (a != b && a != c && a != d && b != c && b != d && c != d) {
+                            permutations[n++] = new Direction[]{a, b, c, d};
+                        }
+                    }
+                }
+            }
+        }
+        return permutations;
+    }
+
+    /**
+     * Returns the direction opposite of this one.
+     *
+     * @return The direction opposite of this one.
+     */
+    public Direction opposite() {
+        return OPPOSITES[ordinal()];
+    }
+
+    /**
+     * Returns how far moving in this direction changes the x-coordinate.
+     *
+     * @return The change in x-coordinate of a move in this direction.
+     */
+    public int getDx() {
+        return this.dx;
+    }
+
+    /**
+     * Returns how far moving in this direction changes the y-coordinate.
+     *
+     * @return The change in y-coordinate of a move in this direction.
+     */
+    public int getDy() {
+        return this.dy;
+    }
+}
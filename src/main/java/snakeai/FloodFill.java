@@ -0,0 +1,279 @@
+package snakeai;
+
+import java.awt.Point;
+
+/**
+ * Counts the cells the snake could still reach after a move, to reject moves into pockets that
+ * are too small for it. Bots use it as a safety filter on the move they picked.
+ * <p>
+ * The fill works on the bits of the board 64 cells at a time. Within a word, every run of free
+ * cells that holds a reached cell is filled at once with an addition, whose carry runs up to the
+ * end of the run, and the same trick on the reversed word. The reached bits of a word are then
+ * shifted by one stride into the words of the rows above and below, and by one bit into the words
+ * next to it. Words whose reached bits grew are queued in the order they were reached until
+ * nothing changes, so a fill spreads outwards and finds nearby cells first. Only the words that
+ * were reached are touched, so filling a small pocket is cheap even on a huge board, and a fill
+ * stops as soon as enough cells were found.
+ * <p>
+ * Any BoardView can be filled, so the same fill also answers reachability questions about
+ * simulated boards.
+ * <p>
+ * Cells are identified by their index, y * width + x. Nothing is allocated after construction.
+ */
+public class FloodFill {
+    private final int width;
+    private final int height;
+    private final long[] reached;
+    private final boolean[] pending;
+    private final int[] queue; // Words whose reached bits still have to be spread, as a ring
+    private final int[] touched; // Words with reached bits, cleared after each fill
+    private int queueStart;
+    private int queueSize;
+    private int touchedCount;
+    private int count;
+    // The words of the board and the padded index of the cell treated as free in the current fill
+    private BoardView board;
+    private int vacated;
+
+    /**
+     * Creates a flood fill for a play area of the given size.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     */
+    public FloodFill(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int words = (int) (((long) (width + 2) * (height + 2) + 63) >>> 6);
+        this.reached = new long[words];
+        this.pending = new boolean[words];
+        this.queue = new int[words];
+        this.touched = new int[words];
+    }
+
+    /**
+     * Returns whether this flood fill can be reused for a play area of the given size.
+     *
+     * @param width  The width of the play area.
+     * @param height The height of the play area.
+     * @return True if this flood fill was created for that size, false otherwise.
+     */
+    public boolean fits(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    /**
+     * Returns the move to make instead of the given one if it would trap the snake. A move is safe
+     * if the snake can still reach as many cells as it is long, or its own tail, after making it.
+     * Otherwise the safe direction with the most reachable cells is returned.
+     *
+     * @param game The game being played.
+     * @param move The move the bot picked, or null.
+     * @return The given move if it doesn't trap the snake or no direction is better, otherwise the
+     * direction with the most room.
+     */
+    public Direction avoidTrap(GameView game, Direction move) {
+        BodyView body = game.getBody();
+        int head = body.head();
+        int needed = body.length();
+        int bestSpace = -1;
+        if (move != null) {
+            int cell = game.neighbor(head, move);
+            if (game.isSafe(cell)) {
+                bestSpace = countReachable(game, cell, needed);
+                if (bestSpace >= needed) {
+                    return move;
+                }
+            }
+        }
+
+        Direction best = move;
+        for (int i = 0; i < Direction.COUNT; i++) {
+            Direction d = Direction.get(i);
+            int cell = game.neighbor(head, d);
+            if (d == move || !game.isSafe(cell)) {
+                continue;
+            }
+            int space = countReachable(game, cell, needed);
+            if (space > bestSpace) {
+                best = d;
+                bestSpace = space;
+                if (space >= needed) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts the cells the snake could reach after its head moves into the given cell. The tail
+     * moves off its cell unless the given cell holds the food, and reaching the tail counts as
+     * having all the room needed, since the snake can follow it forever.
+     *
+     * @param game  The game being played.
+     * @param cell  The index of the safe cell the head moves into.
+     * @param limit The count at which to stop filling.
+     * @return The number of free cells reachable from the given cell, not counting the cell
+     * itself, or the limit if at least that many cells or the tail can be reached.
+     */
+    public int countReachable(GameView game, int cell, int limit) {
+        BoardView board = game.getBoard();
+        NeighborTable table = game.getNeighbors();
+        BodyView body = game.getBody();
+        int tail = body.tail();
+        Point food = game.getFoodPos();
+        boolean eats = food != null && table.getX(cell) == food.x && table.getY(cell) == food.y;
+        int vacated = eats || body.length() < 2 ? -1 : board.index(table.getX(tail), table.getY(tail));
+
+        int count = fill(board, board.index(table.getX(cell), table.getY(cell)), vacated, limit);
+        return count >= limit || vacated != -1 && isReached(vacated) ? limit : count;
+    }
+
+    /**
+     * Returns whether one cell can be reached from another over the free cells of a board. Both
+     * cells may be occupied, such as the head and the tail of a snake. The fill stops as soon as
+     * the target is reached.
+     *
+     * @param board   The board to fill, such as the board of a GameState.
+     * @param startX  The x-coordinate of the cell to start from.
+     * @param startY  The y-coordinate of the cell to start from.
+     * @param targetX The x-coordinate of the cell to reach.
+     * @param targetY The y-coordinate of the cell to reach.
+     * @return True if there is a path between the cells, false otherwise.
+     */
+    public boolean reaches(BoardView board, int startX, int startY, int targetX, int targetY) {
+        int target = board.index(targetX, targetY);
+        fill(board, board.index(startX, startY), target, Integer.MAX_VALUE);
+        return isReached(target);
+    }
+
+    /**
+     * Fills the free cells reachable from the given cell until the limit is reached or, if a cell
+     * is to be treated as free, that cell is reached.
+     *
+     * @param board   The board to fill.
+     * @param start   The padded index of the cell to start from.
+     * @param vacated The padded index of an occupied cell to treat as free, or -1 for none.
+     * @param limit   The count at which to stop filling.
+     * @return The number of cells reached, not counting the start.
+     */
+    private int fill(BoardView board, int start, int vacated, int limit) {
+        clear();
+        this.board = board;
+        this.vacated = vacated;
+        this.count = 0;
+        this.reached[start >>> 6] = 1L << start;
+        this.touched[this.touchedCount++] = start >>> 6;
+        this.pending[start >>> 6] = true;
+        this.queue[this.queueSize++] = start >>> 6;
+        while (this.queueSize > 0) {
+            if (this.count >= limit || vacated != -1 && isReached(vacated)) {
+                break;
+            }
+            int word = this.queue[this.queueStart];
+            this.queueStart = this.queueStart + 1 == this.queue.length ? 0 : this.queueStart + 1;
+            this.queueSize--;
+            this.pending[word] = false;
+            spread(word);
+        }
+        return this.count;
+    }
+
+    /**
+     * Fills the runs of free cells holding reached cells in the given word, then reaches into the
+     * neighboring cells in the words next to it and in the rows above and below.
+     *
+     * @param word The index of the word to spread from.
+     */
+    private void spread(int word) {
+        long seeds = this.reached[word];
+        // The start of the fill may be occupied, but the fill must still spread from it
+        long free = free(word) | seeds;
+        // The carry of the addition runs from the lowest seed of each run to the end of the run
+        long up = ((free + seeds) ^ free) & free;
+        long down = Long.reverse(((Long.reverse(free) + Long.reverse(seeds)) ^ Long.reverse(free))
+                & Long.reverse(free));
+        long filled = seeds | up | down;
+        this.count += Long.bitCount(filled & ~seeds);
+        this.reached[word] = filled;
+
+        int stride = this.board.getStride();
+        int rows = stride >>> 6;
+        int shift = stride & 63;
+        add(word + 1, filled >>> 63);
+        add(word - 1, (filled & 1) << 63);
+        add(word + rows, filled << shift);
+        add(word - rows, filled >>> shift);
+        if (shift != 0) {
+            add(word + rows + 1, filled >>> (64 - shift));
+            add(word - rows - 1, filled << (64 - shift));
+        }
+    }
+
+    /**
+     * Marks the free cells among the given bits of a word as reached, and queues the word to be
+     * spread from if any were newly reached.
+     *
+     * @param word The index of the word.
+     * @param bits The cells of the word to reach.
+     */
+    private void add(int word, long bits) {
+        if (word < 0 || word >= this.reached.length) {
+            return;
+        }
+        long added = bits & free(word) & ~this.reached[word];
+        if (added == 0) {
+            return;
+        }
+        if (this.reached[word] == 0) {
+            this.touched[this.touchedCount++] = word;
+        }
+        this.reached[word] |= added;
+        this.count += Long.bitCount(added);
+        if (!this.pending[word]) {
+            this.pending[word] = true;
+            // A word is queued at most once at a time, so the ring never overflows
+            this.queue[(this.queueStart + this.queueSize++) % this.queue.length] = word;
+        }
+    }
+
+    /**
+     * Returns the free cells of a word of the board, including the cell the tail vacates.
+     *
+     * @param word The index of the word.
+     * @return The bits of the cells that are free.
+     */
+    private long free(int word) {
+        long free = ~this.board.getWord(word);
+        if (this.vacated >>> 6 == word) {
+            free |= 1L << this.vacated;
+        }
+        return free;
+    }
+
+    /**
+     * Returns whether the cell with the given padded index was reached by the current fill.
+     *
+     * @param index The padded index of the cell.
+     * @return True if the cell was reached, false otherwise.
+     */
+    private boolean isReached(int index) {
+        return (this.reached[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Clears the words touched by the last fill, so that the next fill starts from nothing.
+     */
+    private void clear() {
+        for (int i = 0; i < this.touchedCount; i++) {
+            this.reached[this.touched[i]] = 0;
+        }
+        for (int i = 0; i < this.queueSize; i++) {
+            this.pending[this.queue[(this.queueStart + i) % this.queue.length]] = false;
+        }
+        this.touchedCount = 0;
+        this.queueStart = 0;
+        this.queueSize = 0;
+    }
+}
@@ -0,0 +1,102 @@
+package snakeai;
+
+import java.util.Random;
+
+/**
+ * The set of empty cells of the play area, supporting constant time insertion, removal, and
+ * random selection without allocating.
+ * <p>
+ * The cells are kept packed at the front of an array, and a second array maps each cell to its
+ * position in the first. Removing a cell moves the last cell into its place.
+ */
+public class FreeCells {
+    private final int[] cells;
+    private final int[] positions; // Position of each cell in cells, or -1 if not in the set
+    private int size;
+
+    /**
+     * Creates a set that can hold the cells of a play area with the given number of cells. The set
+     * starts out holding every cell.
+     *
+     * @param capacity The number of cells in the play area.
+     */
+    public FreeCells(int capacity) {
+        this.cells = new int[capacity];
+        this.positions = new int[capacity];
+        fill();
+    }
+
+    /**
+     * Adds every cell of the play area to the set.
+     */
+    public void fill() {
+        for (int i = 0; i < this.cells.length; i++) {
+            this.cells[i] = i;
+            this.positions[i] = i;
+        }
+        this.size = this.cells.length;
+    }
+
+    /**
+     * Adds a cell to the set. Does nothing if the cell is already in the set.
+     *
+     * @param cell The index of the cell.
+     */
+    public void add(int cell) {
+        if (this.positions[cell] != -1) {
+            return;
+        }
+        this.cells[this.size] = cell;
+        this.positions[cell] = this.size;
+        this.size++;
+    }
+
+    /**
+     * Removes a cell from the set. Does nothing if the cell is not in the set.
+     *
+     * @param cell The index of the cell.
+     */
+    public void remove(int cell) {
+        int position = this.positions[cell];
+        if (position == -1) {
+            return;
+        }
+        this.size--;
+        int last = this.cells[this.size];
+        this.cells[position] = last;
+        this.positions[last] = position;
+        this.positions[cell] = -1;
+    }
+
+    /**
+     * Returns whether a cell is in the set.
+     *
+     * @param cell The index of the cell.
+     * @return True if the cell is in the set, false otherwise.
+     */
+    public boolean contains(int cell) {
+        return this.positions[cell] != -1;
+    }
+
+    /**
+     * Returns a uniformly random cell from the set.
+     *
+     * @param rand The random number generator to use.
+     * @return The index of a random cell in the set, or -1 if the set is empty.
+     */
+    public int random(Random rand) {
+        if (this.size == 0) {
+            return -1;
+        }
+        return this.cells[rand.nextInt(this.size)];
+    }
+
+    /**
+     * Returns the number of cells in the set.
+     *
+     * @return The number of cells in the set.
+     */
+    public int size() {
+        return this.size;
+    }
+}
@@ -0,0 +1,565 @@
+package snakeai;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A single game of Snake played by a bot. Holds the state of the play area, the snake, and the
+ * food, and enforces the rules of the game. Does not depend on any display, so any number of games
+ * can be run at once; windows and other observers can follow a game by registering a
+ * GameListener.
+ */
+public class Game implements GameView {
+    public static final int EMPTY = 0;
+    public static final int FOOD = 1;
+    public static final int SNAKE = 2;
+
+    private final int width;
+    private final int height;
+    private final BitBoard board;
+    private final NeighborTable neighbors;
+    private final FreeCells freeCells;
+    private final Random rand;
+    private final SnakeBody body;
+    private final List<GameListener> listeners;
+    private MoveMetrics metrics;
+    private long moveBudget; // In nanoseconds, or 0 for none
+    private int deadlineMisses;
+    private SnakeBot snake;
+    private long seed;
+    private Direction lastMove;
+    private Point food;
+    private long hash;
+    private boolean over;
+    private boolean won;
+    private int foodEaten;
+    private int moves;
+
+    /**
+     * Creates a new game with an empty play area of the given size. The game must be reset with a
+     * bot before it can be played.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     * @param rand   The random number generator that the seed of each game is drawn from, unless
+     *               the game is reset with a seed of its own.
+     */
+    public Game(int width, int height, Random rand) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Grid dimensions must be positive.");
+        }
+        this.width = width;
+        this.height = height;
+        this.board = new BitBoard(width, height);
+        this.neighbors = NeighborTable.of(width, height);
+        this.freeCells = new FreeCells(width * height);
+        this.rand = rand;
+        this.body = new SnakeBody(width * height);
+        this.listeners = new ArrayList<>();
+        this.over = true;
+    }
+
+    /**
+     * Registers a listener to be notified of changes to this game.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(GameListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(GameListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Sets the metrics that measure the bot's moves. The metrics are cleared whenever the game is
+     * reset.
+     *
+     * @param metrics The metrics to record into, or null to stop measuring moves.
+     */
+    public void setMetrics(MoveMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets how long the bot may take to make each move. Bots are asked for their moves with a
+     * deadline, and moves that are returned after it are counted as deadline misses.
+     *
+     * @param nanos The time budget of each move in nanoseconds, or 0 to not give the bot a
+     *              deadline.
+     * @throws IllegalArgumentException If the budget is negative.
+     */
+    public void setMoveBudget(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("The move budget must not be negative.");
+        }
+        this.moveBudget = nanos;
+    }
+
+    /**
+     * Returns the metrics that measure the bot's moves.
+     *
+     * @return The metrics of this game, or null if its moves aren't measured.
+     */
+    public MoveMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Starts a new game with the given bot and a seed drawn from this game's random number
+     * generator. Clears the play area and places the snake and a food piece at random locations.
+     *
+     * @param snake The bot that will play the game.
+     */
+    public void reset(SnakeBot snake) {
+        reset(snake, this.rand.nextLong());
+    }
+
+    /**
+     * Starts a new game with the given bot and seed. Clears the play area and places the snake and
+     * a food piece at random locations. The start and every food piece depend only on the seed and
+     * the moves made, and the bot is seeded from it too, so the same seed and moves always replay
+     * the same game.
+     *
+     * @param snake The bot that will play the game.
+     * @param seed  The seed of the game.
+     */
+    public void reset(SnakeBot snake, long seed) {
+        this.rand.setSeed(seed);
+        this.seed = seed;
+        clear();
+
+        int startX = this.rand.nextInt(this.width);
+        int startY = this.rand.nextInt(this.height);
+        int start = startY * this.width + startX;
+        this.body.addHead(start);
+        putCell(start, SNAKE);
+        addFood();
+
+        start(snake);
+    }
+
+    /**
+     * Starts a new game with the given bot from the given position. This allows games to be set up
+     * in a known state, such as for benchmarks.
+     *
+     * @param snake The bot that will play the game.
+     * @param body  The cells of the snake, ordered from the tail to the head. The cells must be in
+     *              bounds, distinct, and each one adjacent to the next.
+     * @param food  The location of the food piece. Must be in bounds and not part of the snake.
+     * @throws IllegalArgumentException If the snake is empty or the food is part of the snake.
+     */
+    public void reset(SnakeBot snake, List<Point> body, Point food) {
+        if (body.isEmpty()) {
+            throw new IllegalArgumentException("The snake must have at least one part.");
+        }
+        clear();
+
+        for (Point part : body) {
+            int cell = index(part);
+            this.body.addHead(cell);
+            putCell(cell, SNAKE);
+        }
+        if (getCell(food.x, food.y) != EMPTY) {
+            throw new IllegalArgumentException("Food must be placed in an empty cell.");
+        }
+        this.food = new Point(food);
+        putCell(index(this.food), FOOD);
+
+        start(snake);
+    }
+
+    /**
+     * Clears the play area and all statistics.
+     */
+    private void clear() {
+        this.board.clear();
+        this.freeCells.fill();
+        this.body.clear();
+        this.foodEaten = 0;
+        this.moves = 0;
+        this.lastMove = null;
+        this.over = false;
+        this.won = false;
+        this.food = null;
+    }
+
+    /**
+     * Hands the freshly set up play area to the given bot and notifies all listeners that the game
+     * has started.
+     *
+     * @param snake The bot that will play the game.
+     */
+    private void start(SnakeBot snake) {
+        this.snake = snake;
+        if (this.metrics != null) {
+            this.metrics.clear();
+        }
+        this.deadlineMisses = 0;
+        snake.setSeed(this.rand.nextLong());
+        this.hash = Zobrist.hash(this.body, this.food == null ? -1 : index(this.food));
+        for (GameListener listener : this.listeners) {
+            listener.gameStarted(this);
+        }
+        snake.initialize(this, getHeadPos());
+        if (this.food == null) {
+            // A single cell play area is full from the start
+            endGame(true);
+        }
+    }
+
+    /**
+     * Asks the bot for its next move and applies it. Does nothing if the game is over.
+     *
+     * @return True if the game is still running after the move, false if it has ended.
+     */
+    public boolean step() {
+        if (this.over) {
+            return false;
+        }
+
+        if (this.metrics != null) {
+            this.metrics.beginMove();
+        }
+        Direction move = nextMove();
+        if (this.metrics != null) {
+            this.metrics.endMove(this.snake);
+        }
+        int head = this.body.head();
+        int next = move == null ? head : this.neighbors.get(head, move);
+        this.moves++;
+        this.lastMove = move;
+
+        if (!isSafe(next)) {
+            endGame(false);
+            return false;
+        }
+
+        int oldTail = this.body.tail();
+        int oldFood = this.food == null ? -1 : index(this.food);
+        boolean ate = next == oldFood;
+        if (!ate) {
+            // If it didn't eat food, remove tail of the snake
+            setCell(this.body.removeTail(), EMPTY);
+        }
+        this.body.addHead(next);
+        setCell(next, SNAKE);
+        if (ate) {
+            // If it ate food, add another piece
+            this.foodEaten++;
+            addFood();
+        }
+        this.hash = Zobrist.move(this.hash, head, oldTail, oldFood, next, this.body.tail(),
+                this.food == null ? -1 : index(this.food));
+
+        for (GameListener listener : this.listeners) {
+            listener.moveMade(this);
+        }
+        if (this.food == null) {
+            // The snake fills the whole play area
+            endGame(true);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Asks the bot for its next move, with a deadline if the game has a move budget.
+     *
+     * @return The direction the bot chose.
+     */
+    private Direction nextMove() {
+        if (this.moveBudget == 0) {
+            return this.snake.getMove();
+        }
+        long deadline = System.nanoTime() + this.moveBudget;
+        Direction move = this.snake.getMove(deadline);
+        if (System.nanoTime() - deadline > 0) {
+            this.deadlineMisses++;
+        }
+        return move;
+    }
+
+    /**
+     * Plays the game until it ends or the given number of moves have been made.
+     *
+     * @param maxMoves The maximum number of moves to play. Bots that stall forever would otherwise
+     *                 never finish.
+     * @return True if the game ended, false if it was stopped by the move limit.
+     */
+    public boolean play(long maxMoves) {
+        for (long i = 0; i < maxMoves; i++) {
+            if (!step()) {
+                return true;
+            }
+        }
+        return this.over;
+    }
+
+    /**
+     * Ends the game and notifies all listeners.
+     *
+     * @param won Whether the snake won the game.
+     */
+    private void endGame(boolean won) {
+        this.over = true;
+        this.won = won;
+        for (GameListener listener : this.listeners) {
+            listener.gameEnded(this);
+        }
+    }
+
+    /**
+     * Adds a single piece of food to a random open cell in the grid. If there are no open cells,
+     * no food is added.
+     */
+    private void addFood() {
+        int cell = this.freeCells.random(this.rand);
+        if (cell == -1) {
+            this.food = null;
+            return;
+        }
+        this.food = new Point(cell % this.width, cell / this.width);
+        setCell(cell, FOOD);
+    }
+
+    /**
+     * Sets the value of a cell and notifies all listeners of the change.
+     *
+     * @param cell  The index of the cell to set.
+     * @param value The value to set the cell to.
+     */
+    private void setCell(int cell, int value) {
+        putCell(cell, value);
+        if (this.listeners.isEmpty()) {
+            return;
+        }
+        int x = cell % this.width;
+        int y = cell / this.width;
+        for (GameListener listener : this.listeners) {
+            listener.cellChanged(x, y, value);
+        }
+    }
+
+    /**
+     * Sets the value of a cell without notifying listeners, keeping the set of empty cells up to
+     * date.
+     *
+     * @param cell  The index of the cell to set.
+     * @param value The value to set the cell to.
+     */
+    private void putCell(int cell, int value) {
+        int x = cell % this.width;
+        int y = cell / this.width;
+        if (value == SNAKE) {
+            this.board.set(x, y);
+        } else {
+            this.board.clear(x, y);
+        }
+        if (value == EMPTY) {
+            this.freeCells.add(cell);
+        } else {
+            this.freeCells.remove(cell);
+        }
+    }
+
+    /**
+     * Returns the index into the cell array of the given in-bounds point.
+     *
+     * @param p The point to get the index of.
+     * @return The index of the point in the cell array.
+     */
+    private int index(Point p) {
+        return p.y * this.width + p.x;
+    }
+
+    /**
+     * Returns whether the given coordinates are out-of-bounds of the play area.
+     *
+     * @param x The x-coordinate to check.
+     * @param y The y-coordinate to check.
+     * @return True if the given coordinates are out-of-bounds of the play area, false otherwise.
+     */
+    private boolean isOOB(int x, int y) {
+        return x < 0 || y < 0 || x >= this.width || y >= this.height;
+    }
+
+    @Override
+    public boolean isSafe(Point p) {
+        return p != null && !this.board.isOccupied(p.x, p.y);
+    }
+
+    @Override
+    public boolean isSafe(int x, int y) {
+        return !this.board.isOccupied(x, y);
+    }
+
+    @Override
+    public boolean isSafe(int cell) {
+        return cell != -1 && !this.board.isOccupied(this.neighbors.getX(cell), this.neighbors.getY(cell));
+    }
+
+    @Override
+    public Point get(Point p, Direction d) {
+        if (d == null) {
+            return new Point(p);
+        }
+        int x = p.x + d.getDx();
+        int y = p.y + d.getDy();
+        return isOOB(x, y) ? null : new Point(x, y);
+    }
+
+    @Override
+    public int neighbor(int cell, Direction d) {
+        return this.neighbors.get(cell, d);
+    }
+
+    @Override
+    public NeighborTable getNeighbors() {
+        return this.neighbors;
+    }
+
+    @Override
+    public BoardView getBoard() {
+        return this.board;
+    }
+
+    @Override
+    public BodyView getBody() {
+        return this.body;
+    }
+
+    @Override
+    public Point getFoodPos() {
+        return this.food;
+    }
+
+    @Override
+    public long getHash() {
+        return this.hash;
+    }
+
+    @Override
+    public int getGridWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getGridHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the location of the snake's head.
+     *
+     * @return The coordinates of the snake's head.
+     */
+    public Point getHeadPos() {
+        int head = this.body.head();
+        return new Point(head % this.width, head / this.width);
+    }
+
+    /**
+     * Returns the value of the cell at the given coordinates.
+     *
+     * @param x The x-coordinate of the cell to get.
+     * @param y The y-coordinate of the cell to get.
+     * @return The value of the cell. One of EMPTY, FOOD, or SNAKE.
+     */
+    public int getCell(int x, int y) {
+        if (this.board.isOccupied(x, y)) {
+            return SNAKE;
+        }
+        return this.food != null && this.food.x == x && this.food.y == y ? FOOD : EMPTY;
+    }
+
+    /**
+     * Returns the bot playing this game.
+     *
+     * @return The bot playing this game, or null if the game has never been reset.
+     */
+    public SnakeBot getSnake() {
+        return this.snake;
+    }
+
+    /**
+     * Returns the seed of the current game.
+     *
+     * @return The seed the game was last reset with.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the last move the bot made.
+     *
+     * @return The direction of the last move, or null if no move has been made yet this game or
+     * the bot didn't choose a direction.
+     */
+    public Direction getLastMove() {
+        return this.lastMove;
+    }
+
+    /**
+     * Returns whether the game has ended.
+     *
+     * @return True if the snake has died or filled the play area, false otherwise.
+     */
+    public boolean isOver() {
+        return this.over;
+    }
+
+    /**
+     * Returns whether the snake won the game by filling the whole play area.
+     *
+     * @return True if the snake filled the play area, false otherwise.
+     */
+    public boolean isWon() {
+        return this.won;
+    }
+
+    /**
+     * Returns the number of food pieces the snake has eaten.
+     *
+     * @return The number of food pieces eaten this game.
+     */
+    public int getFoodEaten() {
+        return this.foodEaten;
+    }
+
+    /**
+     * Returns the number of moves the snake has made.
+     *
+     * @return The number of moves made this game, including a final move that killed the snake.
+     */
+    public int getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Returns the number of moves the bot returned after their deadline.
+     *
+     * @return The number of deadline misses this game, or 0 if the game has no move budget.
+     */
+    public int getDeadlineMisses() {
+        return this.deadlineMisses;
+    }
+
+    /**
+     * Returns the number of cells the snake occupies.
+     *
+     * @return The length of the snake.
+     */
+    public int getSnakeLength() {
+        return this.body.length();
+    }
+}
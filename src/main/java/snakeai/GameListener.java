@@ -0,0 +1,37 @@
+package snakeai;
+
+/**
+ * The interface for an observer of a game, such as a window displaying it.
+ */
+public interface GameListener {
+    /**
+     * Called after the game has been reset and the snake and food have been placed.
+     *
+     * @param game The game that was reset.
+     */
+    void gameStarted(Game game);
+
+    /**
+     * Called whenever a cell of the play area changes value.
+     *
+     * @param x     The x-coordinate of the cell that changed.
+     * @param y     The y-coordinate of the cell that changed.
+     * @param value The new value of the cell. One of Game.EMPTY, Game.FOOD, or Game.SNAKE.
+     */
+    void cellChanged(int x, int y, int value);
+
+    /**
+     * Called after the snake has made a move.
+     *
+     * @param game The game the move was made in.
+     */
+    void moveMade(Game game);
+
+    /**
+     * Called once the game has ended, either because the snake died or because it filled the play
+     * area.
+     *
+     * @param game The game that ended.
+     */
+    void gameEnded(Game game);
+}
@@ -0,0 +1,218 @@
+package snakeai;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads a binary log of a game, move by move, so that the game can be replayed. Logs are written
+ * by GameRecorder.
+ * <p>
+ * A game is fully determined by its seed and the moves made: the seed places the snake and every
+ * food piece given the moves, and seeds the bot. So a log holds only a short header and the
+ * moves, packed four to a byte:
+ * <ul>
+ * <li>The magic number "SNKL" and a version byte</li>
+ * <li>The width and height of the play area, as ints</li>
+ * <li>The seed of the game, as a long</li>
+ * <li>The name of the bot, as modified UTF-8</li>
+ * <li>The number of moves, as a long</li>
+ * <li>A flags byte, whose lowest bit is set if the last move was no move at all</li>
+ * <li>The moves, as direction ordinals of 2 bits each, starting from the low bits of each byte</li>
+ * </ul>
+ * Moves are read from the stream in large blocks, so a log can be streamed from disk at the speed
+ * the game can be stepped.
+ */
+public class GameLog implements Closeable {
+    /**
+     * The first four bytes of every log, "SNKL".
+     */
+    public static final int MAGIC = 0x534E4B4C;
+    /**
+     * The version of the log format.
+     */
+    public static final int VERSION = 1;
+    /**
+     * The usual extension of log files.
+     */
+    public static final String EXTENSION = ".snakelog";
+
+    private static final int FLAG_LAST_MOVE_NULL = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final int width;
+    private final int height;
+    private final long seed;
+    private final String botName;
+    private final long moveCount;
+    private final boolean lastMoveNull;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private long bufferStart; // Index of the first byte of the buffer among the packed moves
+    private int bufferLength;
+    private long movesRead;
+
+    /**
+     * Opens a log and reads its header. The stream is read up to the first move.
+     *
+     * @param in The stream to read the log from. Closed when this log is closed.
+     * @throws IOException If the stream can't be read or doesn't hold a log.
+     */
+    public GameLog(InputStream in) throws IOException {
+        this.in = in;
+        DataInputStream header = new DataInputStream(in);
+        if (header.readInt() != MAGIC) {
+            throw new IOException("Not a game log.");
+        }
+        int version = header.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported game log version: " + version);
+        }
+        this.width = header.readInt();
+        this.height = header.readInt();
+        this.seed = header.readLong();
+        this.botName = header.readUTF();
+        this.moveCount = header.readLong();
+        this.lastMoveNull = (header.readUnsignedByte() & FLAG_LAST_MOVE_NULL) != 0;
+        if (this.width <= 0 || this.height <= 0 || this.moveCount < 0) {
+            throw new IOException("Corrupt game log header.");
+        }
+    }
+
+    /**
+     * Writes the header of a log. Used by GameRecorder.
+     *
+     * @param out          The stream to write to.
+     * @param width        The width of the play area.
+     * @param height       The height of the play area.
+     * @param seed         The seed of the game.
+     * @param botName      The name of the bot that played.
+     * @param moveCount    The number of moves that follow the header.
+     * @param lastMoveNull Whether the last move was no move at all.
+     * @throws IOException If the stream can't be written.
+     */
+    static void writeHeader(OutputStream out, int width, int height, long seed, String botName, long moveCount,
+                            boolean lastMoveNull) throws IOException {
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeInt(width);
+        header.writeInt(height);
+        header.writeLong(seed);
+        header.writeUTF(botName);
+        header.writeLong(moveCount);
+        header.writeByte(lastMoveNull ? FLAG_LAST_MOVE_NULL : 0);
+        header.flush();
+    }
+
+    /**
+     * Returns whether there are moves left to read.
+     *
+     * @return True if not all moves have been read, false otherwise.
+     */
+    public boolean hasNext() {
+        return this.movesRead < this.moveCount;
+    }
+
+    /**
+     * Reads the next move.
+     *
+     * @return The direction of the next move, or null if it was no move at all.
+     * @throws IOException If the stream can't be read or ends early.
+     * @throws IllegalStateException If all moves have been read.
+     */
+    public Direction nextMove() throws IOException {
+        if (!hasNext()) {
+            throw new IllegalStateException("No moves left in the log.");
+        }
+        long move = this.movesRead++;
+        if (move == this.moveCount - 1 && this.lastMoveNull) {
+            return null;
+        }
+
+        int index = (int) ((move >>> 2) - this.bufferStart);
+        if (index >= this.bufferLength) {
+            fill();
+            index = 0;
+        }
+        int ordinal = (this.buffer[index] >>> (((int) move & 3) << 1)) & 3;
+        return Direction.get(ordinal);
+    }
+
+    /**
+     * Reads the next block of packed moves into the buffer.
+     *
+     * @throws IOException If the stream can't be read or ends early.
+     */
+    private void fill() throws IOException {
+        this.bufferStart += this.bufferLength;
+        int length = this.in.read(this.buffer);
+        if (length <= 0) {
+            throw new EOFException("The game log ends before its last move.");
+        }
+        this.bufferLength = length;
+    }
+
+    /**
+     * Returns the width of the play area of the logged game.
+     *
+     * @return The width of the play area in cells.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the play area of the logged game.
+     *
+     * @return The height of the play area in cells.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the seed of the logged game.
+     *
+     * @return The seed to reset the game with.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the name of the bot that played the logged game.
+     *
+     * @return The name of the bot.
+     */
+    public String getBotName() {
+        return this.botName;
+    }
+
+    /**
+     * Returns the number of moves in the log.
+     *
+     * @return The number of moves made in the logged game.
+     */
+    public long getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * Returns the number of moves read so far.
+     *
+     * @return The number of moves read.
+     */
+    public long getMovesRead() {
+        return this.movesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
@@ -0,0 +1,110 @@
+package snakeai;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Records the moves of the games played on a game, so that they can be saved as logs and replayed
+ * with GameLog and ReplayBot. Moves are packed four to a byte as they are made, so recording costs
+ * a few bit operations per move and a quarter of a byte of memory.
+ * <p>
+ * Each reset of the game starts a new recording.
+ */
+public class GameRecorder implements GameListener {
+    private byte[] moves = new byte[1024];
+    private long moveCount;
+    private boolean lastMoveNull;
+    private int width;
+    private int height;
+    private long seed;
+    private String botName;
+
+    @Override
+    public void gameStarted(Game game) {
+        this.moveCount = 0;
+        this.lastMoveNull = false;
+        this.moves[0] = 0;
+        this.width = game.getGridWidth();
+        this.height = game.getGridHeight();
+        this.seed = game.getSeed();
+        this.botName = String.valueOf(game.getSnake());
+    }
+
+    @Override
+    public void cellChanged(int x, int y, int value) {
+    }
+
+    @Override
+    public void moveMade(Game game) {
+        record(game.getLastMove());
+    }
+
+    @Override
+    public void gameEnded(Game game) {
+        // A move that kills the snake ends the game without a call to moveMade
+        if (game.getMoves() > this.moveCount) {
+            record(game.getLastMove());
+        }
+    }
+
+    /**
+     * Appends a move to the recording.
+     *
+     * @param move The direction of the move, or null if the bot made no move, which can only be
+     *             the last move of a game.
+     */
+    private void record(Direction move) {
+        if (move == null) {
+            this.lastMoveNull = true;
+            this.moveCount++;
+            return;
+        }
+        int index = (int) (this.moveCount >>> 2);
+        if (index == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+        }
+        this.moves[index] |= move.ordinal() << (((int) this.moveCount & 3) << 1);
+        this.moveCount++;
+        if (((int) this.moveCount & 3) == 0 && index + 1 < this.moves.length) {
+            // Clear the next byte, which may hold moves of an earlier game
+            this.moves[index + 1] = 0;
+        }
+    }
+
+    /**
+     * Returns the number of moves recorded in the current game.
+     *
+     * @return The number of moves recorded.
+     */
+    public long getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * Writes the log of the current game to a stream.
+     *
+     * @param out The stream to write to. Not closed.
+     * @throws IOException If the stream can't be written.
+     */
+    public void write(OutputStream out) throws IOException {
+        long packedMoves = this.lastMoveNull ? this.moveCount - 1 : this.moveCount;
+        GameLog.writeHeader(out, this.width, this.height, this.seed, this.botName, this.moveCount, this.lastMoveNull);
+        out.write(this.moves, 0, (int) ((packedMoves + 3) >>> 2));
+        out.flush();
+    }
+
+    /**
+     * Writes the log of the current game to a file.
+     *
+     * @param fileName The name of the file to write.
+     * @throws IOException If the file can't be written.
+     */
+    public void save(String fileName) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName))) {
+            write(out);
+        }
+    }
+}
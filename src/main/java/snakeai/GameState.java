@@ -0,0 +1,628 @@
+package snakeai;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A hypothetical state of a game, for bots that look ahead. A state starts from the current
+ * position of a real game, and moves can be applied to it and taken back again without ever
+ * touching the real game. States are GameViews themselves, so any bot, search or flood fill that
+ * works on a game also works on a state.
+ * <p>
+ * The snake of a state is the real snake followed by the cells moved into since, with its tail a
+ * position in that sequence, so the real body is shared rather than copied. Applying a move
+ * appends a cell, sets its bit on the board and, unless the snake ate, clears the tail's bit and
+ * advances the tail. Every move is written to an undo log along with the food before it and the
+ * cell's previous entry in a table of the last move to enter each cell, which keeps indexOf
+ * constant time, and the Zobrist hash before the move. That is all undo needs, so both apply and
+ * undo take constant time and allocate nothing once the log is large enough and the board pages
+ * they write to have been copied before. Food that is eaten reappears at a random free cell.
+ * <p>
+ * The board bits are split into pages of 64 words. A state that was just reset has no pages of its
+ * own and reads the board of the real game; the first time a move writes to a page, just that page
+ * is copied. Resetting gives the copied pages up again, so a reset takes time linear in the number
+ * of moves and pages it takes back, not in the size of the board, and the page arrays are reused.
+ * <p>
+ * snapshot returns a copy of a state in time linear in the number of pages, not cells. The board
+ * pages and the pages of the table of moves are shared between a state and its snapshots, and
+ * whichever writes to a shared page first copies just that page; the undo log is shared until
+ * either writes to it. So a search can keep a snapshot of every interesting state and only pays
+ * for the pages the states actually change. Every snapshot places food with its own source of
+ * randomness, seeded from the one of the state it was taken from.
+ * <p>
+ * A state and its snapshots may be used on different threads, each by one thread at a time. The
+ * real game must not change while states started from it are in use. Cells are identified by
+ * their index, y * width + x.
+ */
+public class GameState implements GameView {
+    // Words of board bits and entries of the move table per page, as powers of two
+    private static final int WORD_PAGE_SHIFT = 6;
+    private static final int CELL_PAGE_SHIFT = 10;
+    // How many random cells are tried before the free cells are searched in order for the food
+    private static final int FOOD_TRIES = 16;
+
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final int wordCount;
+    private final Board board = new Board();
+    private final Body body = new Body();
+    // Pages of board bits, or null for pages still read from the real board
+    private long[][] words;
+    private boolean[] ownedWords; // Whether each page of words belongs to this state alone
+    private int[] copiedPages; // The pages of words that aren't null, in the order they were copied
+    private int copiedCount;
+    private long[][] sparePages; // Pages given up by a reset that belonged to this state alone
+    private int spareCount;
+    // Position in the undo log plus 1 of the last move into each cell, or 0 if none
+    private int[][] entries;
+    private boolean[] ownedEntries;
+    private NeighborTable table;
+    private BoardView realBoard;
+    private BodyView realBody;
+    private int realLength;
+    // The undo log: the cells moved into, in order, and the food, cell entry and hash before each
+    private int[] path = new int[64];
+    private int[] oldFoods = new int[64];
+    private int[] oldEntries = new int[64];
+    private long[] oldHashes = new long[64];
+    private boolean logShared;
+    private int moves;
+    private int tail; // Position of the tail in the real body followed by the path
+    private int food; // Index of the food's cell, or -1 if there is none
+    private int foodEaten;
+    private long hash;
+    private Point foodPos; // Cached for getFoodPos, may be stale
+    private Random rand;
+
+    /**
+     * Creates a state for a play area of the given size. The state has no snake until it is
+     * reset to the position of a game.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     */
+    public GameState(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.stride = width + 2;
+        this.wordCount = (int) (((long) this.stride * (height + 2) + 63) >>> 6);
+        this.words = new long[pages(this.wordCount, WORD_PAGE_SHIFT)][];
+        this.ownedWords = new boolean[this.words.length];
+        this.copiedPages = new int[this.words.length];
+        this.sparePages = new long[this.words.length][];
+        this.entries = new int[pages(width * height, CELL_PAGE_SHIFT)][];
+        for (int i = 0; i < this.entries.length; i++) {
+            this.entries[i] = new int[1 << CELL_PAGE_SHIFT];
+        }
+        this.ownedEntries = new boolean[this.entries.length];
+        Arrays.fill(this.ownedEntries, true);
+        this.rand = new Random();
+    }
+
+    /**
+     * Creates a snapshot of the given state, sharing all of its pages and its undo log, with a
+     * source of randomness seeded from the given state's.
+     *
+     * @param other The state to copy.
+     */
+    private GameState(GameState other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.stride = other.stride;
+        this.wordCount = other.wordCount;
+        this.words = other.words.clone();
+        this.ownedWords = new boolean[this.words.length];
+        this.copiedPages = other.copiedPages.clone();
+        this.copiedCount = other.copiedCount;
+        this.sparePages = new long[this.words.length][];
+        this.entries = other.entries.clone();
+        this.ownedEntries = new boolean[this.entries.length];
+        this.table = other.table;
+        this.realBoard = other.realBoard;
+        this.realBody = other.realBody;
+        this.realLength = other.realLength;
+        this.path = other.path;
+        this.oldFoods = other.oldFoods;
+        this.oldEntries = other.oldEntries;
+        this.oldHashes = other.oldHashes;
+        this.logShared = true;
+        this.moves = other.moves;
+        this.tail = other.tail;
+        this.food = other.food;
+        this.foodEaten = other.foodEaten;
+        this.hash = other.hash;
+        this.foodPos = other.foodPos;
+        this.rand = new Random(other.rand.nextLong());
+    }
+
+    /**
+     * Returns whether this state can be reset to a game with a play area of the given size.
+     *
+     * @param width  The width of the play area.
+     * @param height The height of the play area.
+     * @return True if this state was created for that size, false otherwise.
+     */
+    public boolean fits(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    /**
+     * Sets the seed of the source of randomness that places food. Snapshots taken afterwards are
+     * seeded from it.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(long seed) {
+        this.rand.setSeed(seed);
+    }
+
+    /**
+     * Takes back all moves and starts over from the current position of the given game.
+     *
+     * @param game The game. Must be of the same size, and must not change while this state is in
+     *             use.
+     */
+    public void reset(GameView game) {
+        // The real snake may have moved on, so only the entries are taken back; the board pages
+        // are given up and read from the real board again
+        while (this.moves > 0) {
+            this.moves--;
+            setEntry(this.path[this.moves], this.oldEntries[this.moves]);
+        }
+        while (this.copiedCount > 0) {
+            int page = this.copiedPages[--this.copiedCount];
+            if (this.ownedWords[page]) {
+                this.sparePages[this.spareCount++] = this.words[page];
+                this.ownedWords[page] = false;
+            }
+            this.words[page] = null;
+        }
+        this.realBoard = game.getBoard();
+        this.table = game.getNeighbors();
+        this.realBody = game.getBody();
+        this.realLength = this.realBody.length();
+        this.tail = 0;
+        this.foodEaten = 0;
+        Point realFood = game.getFoodPos();
+        this.food = realFood == null ? -1 : realFood.y * this.width + realFood.x;
+        this.hash = game.getHash();
+    }
+
+    /**
+     * Returns a copy of this state that can be changed independently of it. The copy shares
+     * everything with this state until one of them changes it, so this takes time linear in the
+     * number of pages of the board rather than in the number of cells. Moves made before the
+     * snapshot can be taken back on the copy too.
+     *
+     * @return A new state in the same position, with the same undo log.
+     */
+    public GameState snapshot() {
+        GameState copy = new GameState(this);
+        Arrays.fill(this.ownedWords, false);
+        Arrays.fill(this.ownedEntries, false);
+        this.logShared = true;
+        return copy;
+    }
+
+    /**
+     * Moves the snake in the given direction, unless that would kill it. If the snake eats, new
+     * food is placed on a random free cell.
+     *
+     * @param d The direction to move in.
+     * @return True if the snake moved, false if the move would kill it, in which case nothing
+     * changes.
+     */
+    public boolean apply(Direction d) {
+        int head = this.body.head();
+        int next = this.table.get(head, d);
+        if (!isSafe(next)) {
+            return false;
+        }
+        if (this.logShared || this.moves == this.path.length) {
+            int capacity = this.moves == this.path.length ? this.moves * 2 : this.path.length;
+            this.path = Arrays.copyOf(this.path, capacity);
+            this.oldFoods = Arrays.copyOf(this.oldFoods, capacity);
+            this.oldEntries = Arrays.copyOf(this.oldEntries, capacity);
+            this.oldHashes = Arrays.copyOf(this.oldHashes, capacity);
+            this.logShared = false;
+        }
+        this.path[this.moves] = next;
+        this.oldFoods[this.moves] = this.food;
+        this.oldEntries[this.moves] = getEntry(next);
+        this.oldHashes[this.moves] = this.hash;
+        setEntry(next, this.moves + 1);
+        this.moves++;
+
+        int oldTail = part(this.tail);
+        int oldFood = this.food;
+        flip(next);
+        if (next == this.food) {
+            this.foodEaten++;
+            this.food = randomFreeCell();
+        } else {
+            flip(part(this.tail++));
+        }
+        this.hash = Zobrist.move(this.hash, head, oldTail, oldFood, next, part(this.tail), this.food);
+        return true;
+    }
+
+    /**
+     * Takes back the last move.
+     *
+     * @throws IllegalStateException If no moves were made since the state was reset.
+     */
+    public void undo() {
+        if (this.moves == 0) {
+            throw new IllegalStateException("No moves to take back.");
+        }
+        int cell = this.path[--this.moves];
+        this.food = this.oldFoods[this.moves];
+        this.hash = this.oldHashes[this.moves];
+        setEntry(cell, this.oldEntries[this.moves]);
+        flip(cell);
+        if (cell == this.food) {
+            this.foodEaten--;
+        } else {
+            flip(part(--this.tail));
+        }
+    }
+
+    /**
+     * Takes back moves, newest first, until the given number of moves are left.
+     *
+     * @param moves The number of moves to keep, as returned by getMoves.
+     */
+    public void undo(int moves) {
+        while (this.moves > moves) {
+            undo();
+        }
+    }
+
+    /**
+     * Returns the number of moves made since the state was reset, which can be passed to undo to
+     * take back all moves made after this call.
+     *
+     * @return The number of moves in the undo log.
+     */
+    public int getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Returns the number of pieces of food eaten since the state was reset.
+     *
+     * @return The number of pieces of food eaten.
+     */
+    public int getFoodEaten() {
+        return this.foodEaten;
+    }
+
+    /**
+     * Returns the cell of the food.
+     *
+     * @return The index of the food's cell, or -1 if there is no food on the grid.
+     */
+    public int getFood() {
+        return this.food;
+    }
+
+    /**
+     * Returns whether the snake fills the whole play area.
+     *
+     * @return True if there are no free cells left, false otherwise.
+     */
+    public boolean isWon() {
+        return this.body.length() == this.width * this.height;
+    }
+
+    @Override
+    public boolean isSafe(Point p) {
+        return p != null && !this.board.isOccupied(p.x, p.y);
+    }
+
+    @Override
+    public boolean isSafe(int x, int y) {
+        return !this.board.isOccupied(x, y);
+    }
+
+    @Override
+    public boolean isSafe(int cell) {
+        return cell != -1 && !this.board.isOccupied(index(cell));
+    }
+
+    @Override
+    public BoardView getBoard() {
+        return this.board;
+    }
+
+    @Override
+    public BodyView getBody() {
+        return this.body;
+    }
+
+    @Override
+    public Point get(Point p, Direction d) {
+        if (d == null) {
+            return new Point(p);
+        }
+        int x = p.x + d.getDx();
+        int y = p.y + d.getDy();
+        return x < 0 || y < 0 || x >= this.width || y >= this.height ? null : new Point(x, y);
+    }
+
+    @Override
+    public int neighbor(int cell, Direction d) {
+        return this.table.get(cell, d);
+    }
+
+    @Override
+    public NeighborTable getNeighbors() {
+        return this.table;
+    }
+
+    @Override
+    public Point getFoodPos() {
+        if (this.food == -1) {
+            return null;
+        }
+        int x = this.table.getX(this.food);
+        int y = this.table.getY(this.food);
+        if (this.foodPos == null || this.foodPos.x != x || this.foodPos.y != y) {
+            this.foodPos = new Point(x, y);
+        }
+        return this.foodPos;
+    }
+
+    @Override
+    public long getHash() {
+        return this.hash;
+    }
+
+    @Override
+    public int getGridWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getGridHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the cell of the given part of the snake.
+     *
+     * @param i The position of the part, where 0 is the tail of the real snake and parts past the
+     *          real head are the cells moved into since.
+     * @return The index of the part's cell.
+     */
+    private int part(int i) {
+        return i < this.realLength ? this.realBody.get(i) : this.path[i - this.realLength];
+    }
+
+    /**
+     * Picks a random free cell for new food. A few cells are tried at random, which almost always
+     * succeeds unless the snake fills most of the play area, and the free cells are searched in
+     * order from a random cell otherwise.
+     *
+     * @return The index of a free cell, or -1 if there is none.
+     */
+    private int randomFreeCell() {
+        int cells = this.width * this.height;
+        if (this.body.length() == cells) {
+            return -1;
+        }
+        for (int i = 0; i < FOOD_TRIES; i++) {
+            int cell = this.rand.nextInt(cells);
+            if (isSafe(cell)) {
+                return cell;
+            }
+        }
+        int start = this.rand.nextInt(cells);
+        for (int i = 0; i < cells; i++) {
+            int cell = (start + i) % cells;
+            if (isSafe(cell)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the padded index of the given cell on the board.
+     *
+     * @param cell The index of the cell.
+     * @return The padded index of the cell.
+     */
+    private int index(int cell) {
+        return (this.table.getY(cell) + 1) * this.stride + this.table.getX(cell) + 1;
+    }
+
+    /**
+     * Returns a word of the board bits, from the real board if its page wasn't copied.
+     *
+     * @param i The index of the word.
+     * @return The word.
+     */
+    private long getWord(int i) {
+        long[] page = this.words[i >>> WORD_PAGE_SHIFT];
+        return page != null ? page[i & ((1 << WORD_PAGE_SHIFT) - 1)] : this.realBoard.getWord(i);
+    }
+
+    /**
+     * Switches the given cell between free and occupied.
+     *
+     * @param cell The index of the cell.
+     */
+    private void flip(int cell) {
+        int index = index(cell);
+        int word = index >>> 6;
+        writableWords(word)[word & ((1 << WORD_PAGE_SHIFT) - 1)] ^= 1L << index;
+    }
+
+    /**
+     * Returns the page holding the given word, copying it first if it is shared or still read from
+     * the real board. Pages given up by a reset are reused for the copy.
+     *
+     * @param word The index of the word.
+     * @return The page, which this state may write to.
+     */
+    private long[] writableWords(int word) {
+        int page = word >>> WORD_PAGE_SHIFT;
+        if (!this.ownedWords[page]) {
+            long[] copy = this.spareCount > 0 ? this.sparePages[--this.spareCount] : new long[1 << WORD_PAGE_SHIFT];
+            long[] shared = this.words[page];
+            if (shared != null) {
+                System.arraycopy(shared, 0, copy, 0, copy.length);
+            } else {
+                int first = page << WORD_PAGE_SHIFT;
+                int end = Math.min(first + copy.length, this.wordCount);
+                for (int i = first; i < end; i++) {
+                    copy[i - first] = this.realBoard.getWord(i);
+                }
+                this.copiedPages[this.copiedCount++] = page;
+            }
+            this.words[page] = copy;
+            this.ownedWords[page] = true;
+        }
+        return this.words[page];
+    }
+
+    /**
+     * Returns the position in the undo log plus 1 of the last move into the given cell.
+     *
+     * @param cell The index of the cell.
+     * @return The entry of the cell, or 0 if no move entered it.
+     */
+    private int getEntry(int cell) {
+        return this.entries[cell >>> CELL_PAGE_SHIFT][cell & ((1 << CELL_PAGE_SHIFT) - 1)];
+    }
+
+    /**
+     * Sets the entry of the given cell, copying its page first if it is shared.
+     *
+     * @param cell  The index of the cell.
+     * @param entry The new entry.
+     */
+    private void setEntry(int cell, int entry) {
+        int page = cell >>> CELL_PAGE_SHIFT;
+        if (!this.ownedEntries[page]) {
+            this.entries[page] = this.entries[page].clone();
+            this.ownedEntries[page] = true;
+        }
+        this.entries[page][cell & ((1 << CELL_PAGE_SHIFT) - 1)] = entry;
+    }
+
+    /**
+     * Returns the number of pages needed for the given number of elements.
+     *
+     * @param elements The number of elements.
+     * @param shift    The number of elements per page, as a power of two.
+     * @return The number of pages.
+     */
+    private static int pages(int elements, int shift) {
+        return (elements + (1 << shift) - 1) >>> shift;
+    }
+
+    /**
+     * The board of the state. See BoardView for the layout.
+     */
+    private class Board implements BoardView {
+        @Override
+        public int getWidth() {
+            return GameState.this.width;
+        }
+
+        @Override
+        public int getHeight() {
+            return GameState.this.height;
+        }
+
+        @Override
+        public int getStride() {
+            return GameState.this.stride;
+        }
+
+        @Override
+        public int index(int x, int y) {
+            return (y + 1) * GameState.this.stride + x + 1;
+        }
+
+        @Override
+        public boolean isOccupied(int index) {
+            return (GameState.this.getWord(index >>> 6) & (1L << index)) != 0;
+        }
+
+        @Override
+        public boolean isOccupied(int x, int y) {
+            if (x < 0 || y < 0 || x >= GameState.this.width || y >= GameState.this.height) {
+                return true;
+            }
+            return isOccupied(index(x, y));
+        }
+
+        @Override
+        public int getWordCount() {
+            return GameState.this.wordCount;
+        }
+
+        @Override
+        public long getWord(int i) {
+            return GameState.this.getWord(i);
+        }
+    }
+
+    /**
+     * The snake of the state, from its tail to its head.
+     */
+    private class Body implements BodyView {
+        @Override
+        public int length() {
+            return GameState.this.realLength + GameState.this.moves - GameState.this.tail;
+        }
+
+        @Override
+        public int head() {
+            GameState state = GameState.this;
+            return state.moves == 0 ? state.realBody.head() : state.path[state.moves - 1];
+        }
+
+        @Override
+        public int tail() {
+            return get(0);
+        }
+
+        @Override
+        public int get(int i) {
+            if (i < 0 || i >= length()) {
+                throw new IndexOutOfBoundsException("No part at position " + i);
+            }
+            return part(GameState.this.tail + i);
+        }
+
+        @Override
+        public int getFromHead(int i) {
+            return get(length() - 1 - i);
+        }
+
+        @Override
+        public boolean contains(int cell) {
+            return indexOf(cell) != -1;
+        }
+
+        @Override
+        public int indexOf(int cell) {
+            GameState state = GameState.this;
+            // A cell entered by a move holds that part, or the part was left behind by the tail
+            int entry = getEntry(cell);
+            int position = entry != 0 ? state.realLength + entry - 1 : state.realBody.indexOf(cell);
+            return position < state.tail ? -1 : position - state.tail;
+        }
+
+        @Override
+        public int movesUntilVacated(int cell) {
+            return indexOf(cell) + 1;
+        }
+    }
+}
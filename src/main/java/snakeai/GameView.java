@@ -0,0 +1,111 @@
+package snakeai;
+
+import java.awt.Point;
+
+/**
+ * A read-only view of a game of Snake. Bots query the state of the game they are playing through
+ * this interface.
+ */
+public interface GameView {
+    /**
+     * Returns whether it is safe for a snake to move to the given position.
+     *
+     * @param p The point to check.
+     * @return False if the point is null, out of bounds, or a snake part is at the location, true
+     * otherwise.
+     */
+    boolean isSafe(Point p);
+
+    /**
+     * Returns whether it is safe for a snake to move to the given position.
+     *
+     * @param x The x-coordinate of the position to check.
+     * @param y The y-coordinate of the position to check.
+     * @return False if the position is out of bounds or a snake part is at the location, true
+     * otherwise.
+     */
+    boolean isSafe(int x, int y);
+
+    /**
+     * Returns whether it is safe for a snake to move to the given cell.
+     *
+     * @param cell The index of the cell to check, y * width + x, or -1 for a cell outside of the
+     *             play area.
+     * @return False if the cell is outside of the play area or a snake part is in it, true
+     * otherwise.
+     */
+    boolean isSafe(int cell);
+
+    /**
+     * Returns a read-only view of the cells occupied by the snake. Checking this view directly is
+     * faster than calling isSafe for every cell.
+     *
+     * @return The cells occupied by the snake.
+     */
+    BoardView getBoard();
+
+    /**
+     * Returns a read-only view of the snake's body, from its tail to its head. Bots can use this
+     * instead of keeping track of their own body parts.
+     *
+     * @return The cells of the snake's body.
+     */
+    BodyView getBody();
+
+    /**
+     * For a given point, returns the point adjacent in the given direction.
+     *
+     * @param p The point to get the adjacent point of.
+     * @param d The direction of the adjacent point to get.
+     * @return The point directly adjacent to the given one, in the given direction. If this
+     * adjacent point is outside of the play area, returns null instead. If the given direction is
+     * null, returns the given point.
+     */
+    Point get(Point p, Direction d);
+
+    /**
+     * For a given cell, returns the cell adjacent in the given direction. Unlike get, this does not
+     * allocate.
+     *
+     * @param cell The index of the cell, y * width + x.
+     * @param d    The direction of the adjacent cell to get.
+     * @return The index of the adjacent cell, or -1 if it is outside of the play area.
+     */
+    int neighbor(int cell, Direction d);
+
+    /**
+     * Returns the precomputed neighbors and coordinates of every cell of the play area.
+     *
+     * @return The neighbor table of the play area.
+     */
+    NeighborTable getNeighbors();
+
+    /**
+     * Returns the location of the food piece.
+     *
+     * @return The coordinates of the food piece, or null if there is no food on the grid.
+     */
+    Point getFoodPos();
+
+    /**
+     * Returns the Zobrist hash of the current position, which is kept up to date as the snake
+     * moves. Equal positions have equal hashes in every game of the same size; see Zobrist.
+     *
+     * @return The hash of the snake's body, head and tail and of the food.
+     */
+    long getHash();
+
+    /**
+     * Returns the width of the play area in number of cells.
+     *
+     * @return The width of the play area in number of cells.
+     */
+    int getGridWidth();
+
+    /**
+     * Returns the height of the play area in number of cells.
+     *
+     * @return The height of the play area in number of cells.
+     */
+    int getGridHeight();
+}
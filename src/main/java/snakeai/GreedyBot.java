@@ -0,0 +1,210 @@
+package snakeai;
+
+import java.awt.Point;
+import java.util.Random;
+
+/**
+ * Strategy: Take the shortest path to the food. If no path exists, make random moves that don't
+ * collide with itself or go out of bounds.
+ * <p>
+ * In the INCREMENTAL search mode, the path to the food is repaired after every move instead of
+ * being searched for from scratch.
+ * <p>
+ * Given a deadline, the search gives up once it passes and the snake moves towards the closest
+ * cell to the food found so far, or randomly if the search hadn't left the head yet. Repairing
+ * the path in the INCREMENTAL search mode is not cut short.
+ * <p>
+ * When avoiding traps, a move that would leave the snake fewer reachable cells than it is long is
+ * replaced by the safe move with the most room, which counts as a fallback.
+ */
+public class GreedyBot implements SearchingBot {
+    private final Pathfinder.Mode searchMode;
+    private final boolean avoidTraps;
+    private GameView game;
+    private BodyView body;
+    private Pathfinder pathfinder;
+    private FloodFill floodFill; // Only used when avoiding traps
+    private IncrementalPathfinder replanner; // Only used in the INCREMENTAL search mode
+    private Pathfinder.Traversal safeCells;
+    // Cells of the head and tail at the last move, as indices, or -1 before the first move
+    private int lastHead;
+    private int lastTail;
+    private long expansions;
+    private long fallbacks;
+    // Whether the current move has a deadline, and the System.nanoTime() value of the deadline
+    private boolean timed;
+    private long deadline;
+    private final Random rand = new Random();
+
+    /**
+     * Creates a new bot whose searches use a binary heap.
+     */
+    public GreedyBot() {
+        this(Pathfinder.Mode.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a new bot whose searches use the given data structure for their open set.
+     *
+     * @param searchMode The data structure used by the bot's searches.
+     */
+    public GreedyBot(Pathfinder.Mode searchMode) {
+        this(searchMode, false);
+    }
+
+    /**
+     * Creates a new bot whose searches use the given data structure for their open set, and which
+     * optionally checks every move with a flood fill.
+     *
+     * @param searchMode The data structure used by the bot's searches.
+     * @param avoidTraps Whether to replace moves that leave the snake too little room to survive.
+     */
+    public GreedyBot(Pathfinder.Mode searchMode, boolean avoidTraps) {
+        this.searchMode = searchMode;
+        this.avoidTraps = avoidTraps;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.rand.setSeed(seed);
+    }
+
+    @Override
+    public void initialize(GameView game, Point start) {
+        this.game = game;
+        if (this.pathfinder == null || !this.pathfinder.fits(game.getGridWidth(), game.getGridHeight(), this.searchMode)) {
+            this.pathfinder = new Pathfinder(game.getGridWidth(), game.getGridHeight(), this.searchMode);
+        }
+        if (this.avoidTraps && (this.floodFill == null || !this.floodFill.fits(game.getGridWidth(), game.getGridHeight()))) {
+            this.floodFill = new FloodFill(game.getGridWidth(), game.getGridHeight());
+        }
+        if (this.searchMode == Pathfinder.Mode.INCREMENTAL) {
+            if (this.replanner == null || !this.replanner.fits(game.getGridWidth(), game.getGridHeight())) {
+                this.replanner = new IncrementalPathfinder(game.getGridWidth(), game.getGridHeight());
+            }
+            this.replanner.reset();
+        }
+        this.body = game.getBody();
+        this.lastHead = -1;
+        this.lastTail = -1;
+        this.expansions = 0;
+        this.fallbacks = 0;
+        this.safeCells = new Pathfinder.Traversal() {
+            @Override
+            public boolean canEnter(int cell) {
+                return GreedyBot.this.game.isSafe(cell);
+            }
+        };
+    }
+
+    @Override
+    public Direction getMove() {
+        this.timed = false;
+        return nextMove();
+    }
+
+    @Override
+    public Direction getMove(long deadline) {
+        this.timed = true;
+        this.deadline = Pathfinder.searchDeadline(deadline);
+        return nextMove();
+    }
+
+    /**
+     * Returns the direction the snake will move next, giving up on the search at the deadline if
+     * this move has one.
+     *
+     * @return The direction of this snake's next move.
+     */
+    private Direction nextMove() {
+        if (this.replanner != null) {
+            reportChanges();
+        }
+        Direction nextDirection = pathfindTo(this.game.getFoodPos());
+        boolean fellBack = nextDirection == null || this.pathfinder.isTimedOut();
+        if (nextDirection == null) {
+            nextDirection = getRandomMove();
+        }
+        if (this.floodFill != null && !this.pathfinder.isTimedOut()) {
+            Direction safer = this.floodFill.avoidTrap(this.game, nextDirection);
+            fellBack |= safer != nextDirection;
+            nextDirection = safer;
+        }
+        if (fellBack) {
+            this.fallbacks++;
+        }
+
+        return nextDirection;
+    }
+
+    /**
+     * Calculates the shortest path from the snake's head to the given target point and returns the
+     * direction to move in order to take that path.
+     *
+     * @param target The target location to find a path to.
+     * @return The direction to move in order to take the shortest path from the snake's head to the
+     * given target point.
+     */
+    private Direction pathfindTo(Point target) {
+        int start = this.body.head();
+        int end = this.pathfinder.cell(target.x, target.y);
+        if (this.replanner != null) {
+            Direction nextDirection = this.replanner.findPath(start, end, this.safeCells);
+            this.expansions += this.replanner.getExpansions();
+            return nextDirection;
+        }
+        Direction nextDirection = this.timed
+                ? this.pathfinder.findPath(start, end, this.safeCells, this.deadline)
+                : this.pathfinder.findPath(start, end, this.safeCells);
+        this.expansions += this.pathfinder.getExpansions();
+        return nextDirection;
+    }
+
+    /**
+     * Tells the incremental search which cells the snake entered or left since the last move: the
+     * new head, and the old tail if it was vacated.
+     */
+    private void reportChanges() {
+        int width = this.game.getGridWidth();
+        int head = this.body.head();
+        this.replanner.cellChanged(head % width, head / width);
+        if (this.lastHead != -1) {
+            this.replanner.cellChanged(this.lastHead % width, this.lastHead / width);
+            this.replanner.cellChanged(this.lastTail % width, this.lastTail / width);
+        }
+        this.lastHead = head;
+        this.lastTail = this.body.tail();
+    }
+
+    /**
+     * Returns a random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds.
+     *
+     * @return A random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds. If no such direction exists, returns UP.
+     */
+    private Direction getRandomMove() {
+        for (Direction d : Direction.randomOrder(this.rand)) {
+            if (this.game.isSafe(this.game.neighbor(this.body.head(), d))) {
+                return d;
+            }
+        }
+
+        return Direction.UP;
+    }
+
+    @Override
+    public long getExpansions() {
+        return this.expansions;
+    }
+
+    @Override
+    public long getFallbacks() {
+        return this.fallbacks;
+    }
+
+    @Override
+    public String toString() {
+        return "GreedyBot";
+    }
+}
@@ -0,0 +1,266 @@
+package snakeai;
+
+import java.awt.Point;
+import java.util.Random;
+
+/**
+ * Strategy: Take the shortest path to the food. If no path exists, move towards the oldest body
+ * part that can be moved to. If the snake would reach this oldest part in fewer moves than it would
+ * take the part to disappear, the snake will attempt to stall for time by moving to the farthest
+ * point away from its current location.
+ * <p>
+ * Given a deadline, the searches give up once it passes and the snake moves towards the closest
+ * cell to the current target found so far, or randomly if the search hadn't left the head yet.
+ * <p>
+ * When avoiding traps, a move that would leave the snake fewer reachable cells than it is long,
+ * without reaching its tail, is replaced by the safe move with the most room.
+ */
+public class GreedyTailBot implements SearchingBot {
+    private final Pathfinder.Mode searchMode;
+    private final boolean avoidTraps;
+    private GameView game;
+    private BodyView body;
+    // The oldest body part that can be moved to, as a cell index
+    private int oldestFoundPart;
+    // Path length of the last pathfinding
+    private int pathLength;
+    private Pathfinder pathfinder;
+    private FloodFill floodFill; // Only used when avoiding traps
+    private Pathfinder.Traversal traversal;
+    private Pathfinder.Traversal safeCells;
+    // Cell index of the target of the current search
+    private int target;
+    private long expansions;
+    private long fallbacks;
+    // Whether the current move has a deadline, and the System.nanoTime() value of the deadline
+    private boolean timed;
+    private long deadline;
+    // Whether a search of the current move gave up at the deadline
+    private boolean timedOut;
+    private final Random rand = new Random();
+
+    /**
+     * Creates a new bot whose searches use a binary heap.
+     */
+    public GreedyTailBot() {
+        this(Pathfinder.Mode.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a new bot whose searches use the given data structure for their open set.
+     *
+     * @param searchMode The data structure used by the bot's searches.
+     */
+    public GreedyTailBot(Pathfinder.Mode searchMode) {
+        this(searchMode, false);
+    }
+
+    /**
+     * Creates a new bot whose searches use the given data structure for their open set, and which
+     * optionally checks every move with a flood fill.
+     *
+     * @param searchMode The data structure used by the bot's searches.
+     * @param avoidTraps Whether to replace moves that leave the snake too little room to survive.
+     */
+    public GreedyTailBot(Pathfinder.Mode searchMode, boolean avoidTraps) {
+        this.searchMode = searchMode;
+        this.avoidTraps = avoidTraps;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.rand.setSeed(seed);
+    }
+
+    @Override
+    public void initialize(GameView game, Point start) {
+        this.game = game;
+        this.body = game.getBody();
+        this.expansions = 0;
+        this.fallbacks = 0;
+
+        if (this.pathfinder == null || !this.pathfinder.fits(game.getGridWidth(), game.getGridHeight(), this.searchMode)) {
+            this.pathfinder = new Pathfinder(game.getGridWidth(), game.getGridHeight(), this.searchMode);
+        }
+        if (this.avoidTraps && (this.floodFill == null || !this.floodFill.fits(game.getGridWidth(), game.getGridHeight()))) {
+            this.floodFill = new FloodFill(game.getGridWidth(), game.getGridHeight());
+        }
+        this.traversal = new Pathfinder.Traversal() {
+            @Override
+            public boolean canEnter(int cell) {
+                return canEnterCell(cell);
+            }
+        };
+        this.safeCells = new Pathfinder.Traversal() {
+            @Override
+            public boolean canEnter(int cell) {
+                return GreedyTailBot.this.game.isSafe(cell);
+            }
+        };
+    }
+
+    @Override
+    public Direction getMove() {
+        this.timed = false;
+        return nextMove();
+    }
+
+    @Override
+    public Direction getMove(long deadline) {
+        this.timed = true;
+        this.deadline = Pathfinder.searchDeadline(deadline);
+        return nextMove();
+    }
+
+    /**
+     * Returns the direction the snake will move next, giving up on the searches at the deadline
+     * if this move has one.
+     *
+     * @return The direction of this snake's next move.
+     */
+    private Direction nextMove() {
+        this.timedOut = false;
+        Direction nextDirection = pathfindTo(this.game.getFoodPos());
+        boolean fellBack = nextDirection == null || this.timedOut;
+        if (nextDirection == null && !this.timedOut) {
+            nextDirection = pathfindTo(this.oldestFoundPart);
+            if (!this.timedOut && this.pathLength != 1 && this.pathLength < getAge(this.oldestFoundPart)) {
+                int farthest = getFarthestPoint();
+                if (!this.timedOut) {
+                    nextDirection = pathfindTo(farthest);
+                }
+            }
+        }
+        if (nextDirection == null && this.timedOut) {
+            nextDirection = getRandomMove();
+        }
+        if (this.floodFill != null && !this.timedOut) {
+            Direction safer = this.floodFill.avoidTrap(this.game, nextDirection);
+            fellBack |= safer != nextDirection;
+            nextDirection = safer;
+        }
+        if (fellBack) {
+            this.fallbacks++;
+        }
+
+        return nextDirection;
+    }
+
+    /**
+     * Calculates the shortest path from the snake's head to the given target point and returns the
+     * direction to move in order to take that path. Also determines the oldest body part of the
+     * snake that can be moved to.
+     *
+     * @param target The target location to find a path to.
+     * @return The direction to move in order to take the shortest path from the snake's head to the
+     * given target point.
+     */
+    private Direction pathfindTo(Point target) {
+        return pathfindTo(this.pathfinder.cell(target.x, target.y));
+    }
+
+    /**
+     * Calculates the shortest path from the snake's head to the given target cell and returns the
+     * direction to move in order to take that path. Also determines the oldest body part of the
+     * snake that can be moved to.
+     *
+     * @param target The index of the target cell to find a path to.
+     * @return The direction to move in order to take the shortest path from the snake's head to the
+     * given target cell.
+     */
+    private Direction pathfindTo(int target) {
+        int start = this.body.head();
+        this.oldestFoundPart = start;
+        this.target = target;
+
+        Direction nextDirection = this.timed
+                ? this.pathfinder.findPath(start, target, this.traversal, this.deadline)
+                : this.pathfinder.findPath(start, target, this.traversal);
+        this.expansions += this.pathfinder.getExpansions();
+        this.timedOut = this.pathfinder.isTimedOut();
+        if (nextDirection != null) {
+            this.pathLength = this.pathfinder.getPathLength();
+        }
+        return nextDirection;
+    }
+
+    /**
+     * Returns whether the current search may move into the given cell. Cells that can't be moved
+     * into are checked for being the oldest body part found so far.
+     *
+     * @param cell The index of the cell to check.
+     * @return True if the cell is safe or is the target of the search, false otherwise.
+     */
+    private boolean canEnterCell(int cell) {
+        if (cell == this.target || this.game.isSafe(cell)) {
+            return true;
+        }
+
+        // Update the oldest body part found.
+        int age = getAge(cell);
+        if (age != -1 && age < getAge(this.oldestFoundPart)) {
+            this.oldestFoundPart = cell;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of moves left until the body part in the given cell disappears, not
+     * counting the move that removes it. The body stamps each part with the move it was added on,
+     * so this is found by comparing the part's stamp against the tail's, without updating every
+     * part on every move.
+     *
+     * @param cell The index of the cell to check.
+     * @return The number of moves until the part disappears, or -1 if no body part is in the cell.
+     */
+    private int getAge(int cell) {
+        return this.body.indexOf(cell);
+    }
+
+    /**
+     * Returns a random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds.
+     *
+     * @return A random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds. If no such direction exists, returns UP.
+     */
+    private Direction getRandomMove() {
+        for (Direction d : Direction.randomOrder(this.rand)) {
+            if (this.game.isSafe(this.game.neighbor(this.body.head(), d))) {
+                return d;
+            }
+        }
+
+        return Direction.UP;
+    }
+
+    /**
+     * Returns the cell in the play area that would take the most number of moves to get to.
+     *
+     * @return The index of the cell that would take the most number of moves to get to, or the
+     * head's cell if no cell can be moved to.
+     */
+    private int getFarthestPoint() {
+        int farthest = this.timed
+                ? this.pathfinder.findFarthest(this.body.head(), this.safeCells, this.deadline)
+                : this.pathfinder.findFarthest(this.body.head(), this.safeCells);
+        this.expansions += this.pathfinder.getExpansions();
+        this.timedOut = this.pathfinder.isTimedOut();
+        return farthest;
+    }
+
+    @Override
+    public long getExpansions() {
+        return this.expansions;
+    }
+
+    @Override
+    public long getFallbacks() {
+        return this.fallbacks;
+    }
+
+    @Override
+    public String toString() {
+        return "GreedyTailBot";
+    }
+}
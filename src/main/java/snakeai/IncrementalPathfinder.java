@@ -0,0 +1,519 @@
+package snakeai;
+
+import java.util.Arrays;
+
+/**
+ * A D* Lite search over the cells of the play area that repairs its previous search when only a
+ * few cells change, instead of searching from scratch.
+ * <p>
+ * The search runs backwards from the target, so every cell it has settled knows its distance to
+ * the target. When the snake moves, the start moves along the path that was found, and only the
+ * cells whose traversability changed (the new head and the vacated tail) need their distances
+ * repaired. A new search is only started when the target moves, such as when food respawns, or
+ * when the traversal used changes.
+ * <p>
+ * Callers report the cells that may have changed with cellChanged. Cells are identified by their
+ * index, y * width + x. All search state is kept in primitive arrays sized to the play area and
+ * allocated once, so searching allocates nothing.
+ */
+public class IncrementalPathfinder {
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+    private static final byte OPEN = 1;
+    private static final byte BLOCKED = 2;
+
+    private final int width;
+    private final int height;
+    private final NeighborTable neighbors;
+    private final int[] gScores;
+    private final int[] rhsScores; // One-step lookahead of each cell's distance to the target
+    private final int[] scored; // Generation in which a cell's scores were last set
+    private final byte[] states; // Whether each cell could be entered when last checked
+    private final int[] checked; // Generation in which a cell's state was last set
+    private final long[] keys;
+    private final int[] heap;
+    private final int[] heapIndex; // Position of each cell in the heap, or -1 if not in it
+    private int heapSize;
+    private final int[] pending; // Cells that may have changed since the last search
+    private final int[] pendingMark; // Marker of the cells in pending
+    private int pendingSize;
+    private int pendingStamp;
+    private Pathfinder.Traversal traversal;
+    private int generation;
+    private int start;
+    private int target;
+    private int keyModifier;
+    private int pathLength;
+    private int expansions;
+
+    /**
+     * Creates an incremental pathfinder for a play area of the given size.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     */
+    public IncrementalPathfinder(int width, int height) {
+        int cells = width * height;
+        this.width = width;
+        this.height = height;
+        this.neighbors = NeighborTable.of(width, height);
+        this.gScores = new int[cells];
+        this.rhsScores = new int[cells];
+        this.scored = new int[cells];
+        this.states = new byte[cells];
+        this.checked = new int[cells];
+        this.keys = new long[cells];
+        this.heap = new int[cells];
+        this.heapIndex = new int[cells];
+        Arrays.fill(this.heapIndex, -1);
+        this.pending = new int[cells];
+        this.pendingMark = new int[cells];
+        this.pendingStamp = 1;
+        this.generation = 0;
+        this.target = -1;
+    }
+
+    /**
+     * Returns whether this pathfinder searches a play area of the given size.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     * @return True if this pathfinder can be used for the given play area, false otherwise.
+     */
+    public boolean fits(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    /**
+     * Forgets the previous search, so that the next search starts from scratch. Must be called
+     * when a new game starts.
+     */
+    public void reset() {
+        this.target = -1;
+        clearPending();
+    }
+
+    /**
+     * Reports that the given cell may have changed whether it can be entered since the last
+     * search. Cells that have not changed may be reported too. Out of bounds cells are ignored.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    public void cellChanged(int x, int y) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            return;
+        }
+        int cell = y * this.width + x;
+        if (this.pendingMark[cell] != this.pendingStamp) {
+            this.pendingMark[cell] = this.pendingStamp;
+            this.pending[this.pendingSize++] = cell;
+        }
+    }
+
+    /**
+     * Calculates the shortest path between the given cells and returns the direction to move in
+     * order to take that path. Repairs the previous search if it had the same target and
+     * traversal, and searches from scratch otherwise.
+     *
+     * @param start     The index of the cell to start from.
+     * @param target    The index of the cell to find a path to.
+     * @param traversal Decides which cells the path may go through.
+     * @return The direction to move from the start in order to take the shortest path to the
+     * target, or null if there is no path or the start is the target.
+     */
+    public Direction findPath(int start, int target, Pathfinder.Traversal traversal) {
+        this.expansions = 0;
+        this.pathLength = 0;
+        if (target != this.target || traversal != this.traversal || this.keyModifier > INFINITY) {
+            // Also start over before the key modifier, which grows every move, can overflow
+            initialize(start, target, traversal);
+        } else {
+            repair(start);
+        }
+        clearPending();
+
+        computeShortestPath();
+        return firstStep();
+    }
+
+    /**
+     * Returns the number of moves in the last path found.
+     *
+     * @return The number of moves in the path found by the last search, or 0 if no path was found.
+     */
+    public int getPathLength() {
+        return this.pathLength;
+    }
+
+    /**
+     * Returns the number of nodes expanded by the last search.
+     *
+     * @return The number of nodes taken off of the open set and expanded by the last search,
+     * including the ones needed to repair the previous search.
+     */
+    public int getExpansions() {
+        return this.expansions;
+    }
+
+    /**
+     * Starts a new search from scratch.
+     *
+     * @param start     The index of the cell to start from.
+     * @param target    The index of the cell to find a path to.
+     * @param traversal Decides which cells the path may go through.
+     */
+    private void initialize(int start, int target, Pathfinder.Traversal traversal) {
+        this.generation++;
+        if (this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.scored, 0);
+            Arrays.fill(this.checked, 0);
+            this.generation = 1;
+        }
+        for (int i = 0; i < this.heapSize; i++) {
+            this.heapIndex[this.heap[i]] = -1;
+        }
+        this.heapSize = 0;
+        this.start = start;
+        this.target = target;
+        this.traversal = traversal;
+        this.keyModifier = 0;
+
+        setScores(target, INFINITY, 0);
+        insert(target, key(target));
+    }
+
+    /**
+     * Moves the start of the previous search and repairs the scores of every cell whose
+     * traversability changed since then.
+     *
+     * @param start The index of the new cell to start from.
+     */
+    private void repair(int start) {
+        int oldStart = this.start;
+        this.keyModifier += distance(oldStart, start);
+        this.start = start;
+
+        for (int i = 0; i < this.pendingSize; i++) {
+            int cell = this.pending[i];
+            if (this.checked[cell] != this.generation) {
+                // No score depends on a cell that was never checked
+                continue;
+            }
+            byte state = this.traversal.canEnter(cell) ? OPEN : BLOCKED;
+            if (state == this.states[cell]) {
+                continue;
+            }
+            this.states[cell] = state;
+
+            // Entering the cell got cheaper or more expensive for all of its neighbors
+            updateCell(cell);
+            for (int d = 0; d < Direction.COUNT; d++) {
+                int neighbor = this.neighbors.get(cell, d);
+                if (neighbor != -1) {
+                    updateCell(neighbor);
+                }
+            }
+        }
+
+        // Only the start may be left while blocked, so the old and new starts change too
+        updateCell(oldStart);
+        updateCell(start);
+    }
+
+    /**
+     * Expands cells until the start's distance to the target is known.
+     */
+    private void computeShortestPath() {
+        while (this.heapSize > 0) {
+            int startRhs = rhs(this.start);
+            int startG = g(this.start);
+            int top = this.heap[0];
+            long topKey = this.keys[top];
+            if (topKey >= key(this.start) && startRhs <= startG) {
+                break;
+            }
+            this.expansions++;
+
+            long newKey = key(top);
+            int g = g(top);
+            int rhs = rhs(top);
+            if (topKey < newKey) {
+                // The start moved since the cell was queued, so it is queued too early
+                update(top, newKey);
+            } else if (g > rhs) {
+                // The cell got closer to the target
+                setScores(top, rhs, rhs);
+                remove(top);
+                if (isOpen(top)) {
+                    updateNeighbors(top);
+                }
+            } else {
+                // The cell got farther from the target
+                setScores(top, INFINITY, rhs);
+                updateCell(top);
+                if (isOpen(top)) {
+                    updateNeighbors(top);
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks one step along the shortest path from the start and returns its direction. Also
+     * records the length of the path.
+     *
+     * @return The direction of the first move of the path, or null if there is no path or the
+     * start is the target.
+     */
+    private Direction firstStep() {
+        if (this.start == this.target || rhs(this.start) >= INFINITY) {
+            return null;
+        }
+        this.pathLength = rhs(this.start);
+
+        Direction best = null;
+        int bestScore = INFINITY;
+        for (int d = 0; d < Direction.COUNT; d++) {
+            int neighbor = this.neighbors.get(this.start, d);
+            if (neighbor == -1) {
+                continue;
+            }
+            if (isOpen(neighbor) && g(neighbor) + 1 < bestScore) {
+                best = Direction.get(d);
+                bestScore = g(neighbor) + 1;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Recomputes the one-step lookahead of the given cell's distance and puts it in the open set
+     * if that makes it inconsistent.
+     *
+     * @param cell The index of the cell.
+     */
+    private void updateCell(int cell) {
+        if (cell != this.target) {
+            int rhs = INFINITY;
+            if (cell == this.start || isOpen(cell)) {
+                for (int d = 0; d < Direction.COUNT; d++) {
+                    int neighbor = this.neighbors.get(cell, d);
+                    if (neighbor == -1) {
+                        continue;
+                    }
+                    if (isOpen(neighbor)) {
+                        rhs = Math.min(rhs, g(neighbor) + 1);
+                    }
+                }
+            }
+            setScores(cell, g(cell), rhs);
+        }
+
+        if (g(cell) != rhs(cell)) {
+            long key = key(cell);
+            if (this.heapIndex[cell] == -1) {
+                insert(cell, key);
+            } else {
+                update(cell, key);
+            }
+        } else if (this.heapIndex[cell] != -1) {
+            remove(cell);
+        }
+    }
+
+    /**
+     * Updates every in-bounds neighbor of the given cell.
+     *
+     * @param cell The index of the cell.
+     */
+    private void updateNeighbors(int cell) {
+        for (int d = 0; d < Direction.COUNT; d++) {
+            int neighbor = this.neighbors.get(cell, d);
+            if (neighbor != -1) {
+                updateCell(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the traversal allows entering the given cell, checking the traversal only
+     * the first time each cell is seen in a search.
+     *
+     * @param cell The index of the cell.
+     * @return True if the cell can be entered, false otherwise.
+     */
+    private boolean isOpen(int cell) {
+        if (this.checked[cell] != this.generation) {
+            this.checked[cell] = this.generation;
+            this.states[cell] = this.traversal.canEnter(cell) ? OPEN : BLOCKED;
+        }
+        return this.states[cell] == OPEN;
+    }
+
+    /**
+     * Returns the distance of a cell to the target as of its last expansion.
+     *
+     * @param cell The index of the cell.
+     * @return The distance to the target, or INFINITY if not known.
+     */
+    private int g(int cell) {
+        return this.scored[cell] == this.generation ? this.gScores[cell] : INFINITY;
+    }
+
+    /**
+     * Returns the distance of a cell to the target as seen from its neighbors.
+     *
+     * @param cell The index of the cell.
+     * @return The distance to the target, or INFINITY if not known.
+     */
+    private int rhs(int cell) {
+        return this.scored[cell] == this.generation ? this.rhsScores[cell] : INFINITY;
+    }
+
+    /**
+     * Sets both scores of a cell.
+     *
+     * @param cell The index of the cell.
+     * @param g    The distance to the target as of the cell's last expansion.
+     * @param rhs  The distance to the target as seen from the cell's neighbors.
+     */
+    private void setScores(int cell, int g, int rhs) {
+        this.scored[cell] = this.generation;
+        this.gScores[cell] = g;
+        this.rhsScores[cell] = rhs;
+    }
+
+    /**
+     * Returns the priority of a cell. Cells are ordered by their estimated path length through
+     * them, and then by their distance to the target.
+     *
+     * @param cell The index of the cell.
+     * @return The priority of the cell. Lower values are expanded first.
+     */
+    private long key(int cell) {
+        int score = Math.min(g(cell), rhs(cell));
+        long estimate = (long) score + distance(this.start, cell) + this.keyModifier;
+        return (estimate << 32) | score;
+    }
+
+    /**
+     * Returns the Manhattan distance between two cells.
+     *
+     * @param a The index of the first cell.
+     * @param b The index of the second cell.
+     * @return The Manhattan distance between the cells.
+     */
+    private int distance(int a, int b) {
+        NeighborTable table = this.neighbors;
+        return Math.abs(table.getX(a) - table.getX(b)) + Math.abs(table.getY(a) - table.getY(b));
+    }
+
+    /**
+     * Empties the list of changed cells.
+     */
+    private void clearPending() {
+        this.pendingSize = 0;
+        this.pendingStamp++;
+        if (this.pendingStamp == Integer.MAX_VALUE) {
+            Arrays.fill(this.pendingMark, 0);
+            this.pendingStamp = 1;
+        }
+    }
+
+    /**
+     * Adds a cell to the open set.
+     *
+     * @param cell The index of the cell.
+     * @param key  The priority of the cell.
+     */
+    private void insert(int cell, long key) {
+        this.keys[cell] = key;
+        int i = this.heapSize++;
+        this.heap[i] = cell;
+        this.heapIndex[cell] = i;
+        siftUp(i);
+    }
+
+    /**
+     * Changes the priority of a cell that is in the open set.
+     *
+     * @param cell The index of the cell.
+     * @param key  The new priority of the cell.
+     */
+    private void update(int cell, long key) {
+        long oldKey = this.keys[cell];
+        this.keys[cell] = key;
+        if (key < oldKey) {
+            siftUp(this.heapIndex[cell]);
+        } else {
+            siftDown(this.heapIndex[cell]);
+        }
+    }
+
+    /**
+     * Removes a cell from the open set.
+     *
+     * @param cell The index of the cell.
+     */
+    private void remove(int cell) {
+        int i = this.heapIndex[cell];
+        this.heapIndex[cell] = -1;
+        int last = this.heap[--this.heapSize];
+        if (i == this.heapSize) {
+            return;
+        }
+        this.heap[i] = last;
+        this.heapIndex[last] = i;
+        siftUp(i);
+        siftDown(this.heapIndex[last]);
+    }
+
+    /**
+     * Moves the cell at the given heap position up until its parent has a lower priority.
+     *
+     * @param i The position in the heap of the cell to move.
+     */
+    private void siftUp(int i) {
+        int cell = this.heap[i];
+        long key = this.keys[cell];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentCell = this.heap[parent];
+            if (this.keys[parentCell] <= key) {
+                break;
+            }
+            this.heap[i] = parentCell;
+            this.heapIndex[parentCell] = i;
+            i = parent;
+        }
+        this.heap[i] = cell;
+        this.heapIndex[cell] = i;
+    }
+
+    /**
+     * Moves the cell at the given heap position down until its children have higher priorities.
+     *
+     * @param i The position in the heap of the cell to move.
+     */
+    private void siftDown(int i) {
+        int cell = this.heap[i];
+        long key = this.keys[cell];
+        int half = this.heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < this.heapSize && this.keys[this.heap[right]] < this.keys[this.heap[child]]) {
+                child = right;
+            }
+            int childCell = this.heap[child];
+            if (key <= this.keys[childCell]) {
+                break;
+            }
+            this.heap[i] = childCell;
+            this.heapIndex[childCell] = i;
+            i = child;
+        }
+        this.heap[i] = cell;
+        this.heapIndex[cell] = i;
+    }
+}
@@ -0,0 +1,147 @@
+package snakeai;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative values, such as move times in nanoseconds, that keeps a fixed
+ * relative precision over the whole range of a long, in the style of HdrHistogram.
+ * <p>
+ * Values below 64 are counted exactly. Above that, every power of two is split into 32 buckets
+ * of equal width, so a value is known to within about 3%. Recording a value is a few bit
+ * operations and never allocates, and the whole histogram takes 1888 counters: 64 for the values
+ * below 64 and 32 for each of the 57 powers of two above.
+ * <p>
+ * Not thread safe. Histograms recorded on different threads can be combined with add.
+ */
+public class LatencyHistogram {
+    // Number of bits of a value kept below its highest set bit
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // One more than the bucket of Long.MAX_VALUE, (62 - SUB_BUCKET_BITS) * SUB_BUCKETS + 63
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Records a value.
+     *
+     * @param value The value to record. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        this.counts[bucket(value)]++;
+        this.count++;
+        this.total += value;
+        if (value > this.max) {
+            this.max = value;
+        }
+    }
+
+    /**
+     * Adds all values recorded by another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.count += other.count;
+        this.total += other.total;
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void clear() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.total = 0;
+        this.max = 0;
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return The number of values recorded.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return The exact mean of the recorded values, or NaN if none were recorded.
+     */
+    public double getMean() {
+        return this.count == 0 ? Double.NaN : (double) this.total / this.count;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return The exact largest value, or 0 if none were recorded.
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Returns the given percentile of the recorded values using the nearest-rank method.
+     *
+     * @param percentile The percentile to get, between 0 and 100.
+     * @return The highest value that falls in the same bucket as the value at the given
+     * percentile, but no more than the largest recorded value, or 0 if no values were recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * this.count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(highestInBucket(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * Returns the bucket a value is counted in.
+     *
+     * @param value The non-negative value.
+     * @return The index of the value's bucket.
+     */
+    private static int bucket(long value) {
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        if (shift <= 0) {
+            // Small values get a bucket each
+            return (int) value;
+        }
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the highest value counted in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The highest value that is counted in the bucket.
+     */
+    private static long highestInBucket(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket - shift * SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
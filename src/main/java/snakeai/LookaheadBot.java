@@ -0,0 +1,300 @@
+package snakeai;
+
+import java.awt.Point;
+import java.util.Random;
+
+/**
+ * Strategy: Find the shortest path to the food, then send a virtual snake along it and only take
+ * the path if the virtual snake can still reach its tail from the food. Otherwise, follow the tail
+ * the long way around, by moving to the neighboring cell that is farthest from it.
+ * <p>
+ * The virtual snake moves on a GameState, whose undo log takes back the simulated moves
+ * afterwards, so the simulation costs time linear in the length of the path and the state is only
+ * copied from the real game once per move. Whether the tail can be reached is then answered by a
+ * FloodFill of the state's board from the head, which handles 64 cells at a time and, unlike a search for
+ * the tail, costs no more when the tail turns out to be cut off. A snake that can reach its tail
+ * can always survive by following it, so this bot only dies when even its tail is cut off.
+ * <p>
+ * While the snake follows a path, the virtual snake ends up in the same position at the food
+ * move after move, so the verdict is kept in a TranspositionTable under the Zobrist hash of the
+ * position one move before the food, which together with the food decides the end position. Only
+ * the first move of a path pays for the flood fills; later ones find the verdict after simulating
+ * the path.
+ * <p>
+ * Given a deadline, the searches give up once it passes. A path that couldn't be found in time is
+ * treated as unsafe, so the snake follows its tail instead, which only needs a
+ * breadth-first search from the tail for as far as it gets.
+ */
+public class LookaheadBot implements SearchingBot {
+    // Slots of the table of tail checks, which only needs the verdicts of the current few paths
+    private static final int VERDICT_CAPACITY = 1 << 10;
+
+    private final Pathfinder.Mode searchMode;
+    private GameView game;
+    private BodyView body;
+    private Pathfinder pathfinder;
+    private GameState state;
+    private FloodFill floodFill;
+    private final TranspositionTable verdicts = new TranspositionTable(VERDICT_CAPACITY,
+            TranspositionTable.Replacement.ALWAYS);
+    private Pathfinder.Traversal safeCells;
+    private int[] path;
+    private long expansions;
+    private long fallbacks;
+    // Whether the current move has a deadline, and the System.nanoTime() value of the deadline
+    private boolean timed;
+    private long deadline;
+    private final Random rand = new Random();
+
+    /**
+     * Creates a new bot whose searches use a binary heap.
+     */
+    public LookaheadBot() {
+        this(Pathfinder.Mode.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a new bot whose searches use the given data structure for their open set. The
+     * INCREMENTAL mode is searched from scratch with a binary heap, since the simulated board
+     * changes completely between searches.
+     *
+     * @param searchMode The data structure used by the bot's searches.
+     */
+    public LookaheadBot(Pathfinder.Mode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.rand.setSeed(seed);
+    }
+
+    @Override
+    public void initialize(GameView game, Point start) {
+        this.game = game;
+        this.body = game.getBody();
+        this.expansions = 0;
+        this.fallbacks = 0;
+
+        int width = game.getGridWidth();
+        int height = game.getGridHeight();
+        if (this.pathfinder == null || !this.pathfinder.fits(width, height, this.searchMode)) {
+            this.pathfinder = new Pathfinder(width, height, this.searchMode);
+            this.state = new GameState(width, height);
+            this.floodFill = new FloodFill(width, height);
+            this.path = new int[width * height];
+        }
+        this.verdicts.clear();
+        this.safeCells = new Pathfinder.Traversal() {
+            @Override
+            public boolean canEnter(int cell) {
+                return LookaheadBot.this.game.isSafe(cell);
+            }
+        };
+    }
+
+    @Override
+    public Direction getMove() {
+        this.timed = false;
+        return nextMove();
+    }
+
+    @Override
+    public Direction getMove(long deadline) {
+        this.timed = true;
+        this.deadline = Pathfinder.searchDeadline(deadline);
+        return nextMove();
+    }
+
+    /**
+     * Returns the direction the snake will move next, giving up on the searches at the deadline
+     * if this move has one.
+     *
+     * @return The direction of this snake's next move.
+     */
+    private Direction nextMove() {
+        Point food = this.game.getFoodPos();
+        if (food != null) {
+            Direction toFood = pathfindTo(this.pathfinder.cell(food.x, food.y));
+            if (toFood != null && !this.pathfinder.isTimedOut() && canReachTailAfterPath()) {
+                return toFood;
+            }
+        }
+
+        this.fallbacks++;
+        Direction nextDirection = followTail();
+        return nextDirection != null ? nextDirection : getRandomMove();
+    }
+
+    /**
+     * Moves a virtual snake along the path found by the last search, which must lead to the food,
+     * and checks whether it can then reach its tail. The state is reset to the real game first.
+     * The path only enters cells that are free now, and the virtual tail only frees more, so every
+     * move along it should be allowed; if one isn't, the path is treated as unsafe.
+     *
+     * @return True if the tail can be reached without moving into it right away, false otherwise.
+     */
+    private boolean canReachTailAfterPath() {
+        int length = this.pathfinder.getPath(this.path);
+        this.state.reset(this.game);
+        for (int i = 0; i < length - 1; i++) {
+            if (!moveAlongPath(i)) {
+                return false;
+            }
+        }
+        long hash = this.state.getHash();
+        int verdict = this.verdicts.get(hash, 0, -1);
+        if (verdict != -1) {
+            return verdict == 1;
+        }
+
+        if (!moveAlongPath(length - 1)) {
+            return false;
+        }
+        BodyView virtualBody = this.state.getBody();
+        boolean reachable = canReachTail(virtualBody.head(), virtualBody.tail());
+        this.verdicts.put(hash, reachable ? 1 : 0, 0);
+        return reachable;
+    }
+
+    /**
+     * Returns whether the virtual snake can reach its tail. Moving into the tail right away is a
+     * collision, so if the tail is next to the head, one of the tail's other neighbors must be
+     * reachable instead. Each fill stops as soon as it gets where it is going.
+     *
+     * @param head The index of the virtual snake's head.
+     * @param tail The index of the virtual snake's tail.
+     * @return True if there is a path of two or more moves from the head to the tail, false
+     * otherwise.
+     */
+    private boolean canReachTail(int head, int tail) {
+        NeighborTable table = this.game.getNeighbors();
+        BoardView board = this.state.getBoard();
+        int headX = table.getX(head);
+        int headY = table.getY(head);
+        int tailX = table.getX(tail);
+        int tailY = table.getY(tail);
+        if (Math.abs(headX - tailX) + Math.abs(headY - tailY) > 1) {
+            return this.floodFill.reaches(board, headX, headY, tailX, tailY);
+        }
+
+        for (int d = 0; d < Direction.COUNT; d++) {
+            int cell = this.game.neighbor(tail, Direction.get(d));
+            if (cell == -1 || cell == head || !this.state.isSafe(cell)) {
+                continue;
+            }
+            if (this.floodFill.reaches(board, headX, headY, table.getX(cell), table.getY(cell))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the virtual snake into the given cell of the path found by the last search.
+     *
+     * @param i The position of the cell in the path, which must be the next one to move into.
+     * @return True if the snake moved, false if the move would have killed it.
+     */
+    private boolean moveAlongPath(int i) {
+        int from = i == 0 ? this.body.head() : this.path[i - 1];
+        return this.state.apply(directionTo(from, this.path[i]));
+    }
+
+    /**
+     * Returns the direction from a cell to a cell next to it.
+     *
+     * @param from The index of the cell to move from.
+     * @param to   The index of the adjacent cell to move to.
+     * @return The direction of the move.
+     */
+    private Direction directionTo(int from, int to) {
+        for (int d = 0; d < Direction.COUNT; d++) {
+            if (this.game.neighbor(from, Direction.get(d)) == to) {
+                return Direction.get(d);
+            }
+        }
+        throw new IllegalStateException("Path cells are not adjacent.");
+    }
+
+    /**
+     * Returns the move to the neighboring cell farthest from the tail that the tail can be reached
+     * from. The tail moves on as the snake does, so the farther away the next cell is, the more
+     * room the snake leaves behind it.
+     *
+     * @return The direction of the move, or null if no neighboring cell can reach the tail.
+     */
+    private Direction followTail() {
+        int tail = this.body.tail();
+        if (this.timed) {
+            this.pathfinder.findFarthest(tail, this.safeCells, this.deadline);
+        } else {
+            this.pathfinder.findFarthest(tail, this.safeCells);
+        }
+        this.expansions += this.pathfinder.getExpansions();
+
+        Direction best = null;
+        int bestDistance = 0;
+        for (int i = 0; i < Direction.COUNT; i++) {
+            Direction d = Direction.get(i);
+            int cell = this.game.neighbor(this.body.head(), d);
+            if (!this.game.isSafe(cell)) {
+                continue;
+            }
+            int distance = this.pathfinder.getDistance(cell);
+            if (distance > bestDistance) {
+                best = d;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Calculates the shortest path from the snake's head to the given target cell, giving up at
+     * the deadline if this move has one.
+     *
+     * @param target The index of the cell to find a path to.
+     * @return The direction to move in order to take the shortest path.
+     */
+    private Direction pathfindTo(int target) {
+        int start = this.body.head();
+        Direction nextDirection = this.timed
+                ? this.pathfinder.findPath(start, target, this.safeCells, this.deadline)
+                : this.pathfinder.findPath(start, target, this.safeCells);
+        this.expansions += this.pathfinder.getExpansions();
+        return nextDirection;
+    }
+
+    /**
+     * Returns a random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds.
+     *
+     * @return A random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds. If no such direction exists, returns UP.
+     */
+    private Direction getRandomMove() {
+        for (Direction d : Direction.randomOrder(this.rand)) {
+            if (this.game.isSafe(this.game.neighbor(this.body.head(), d))) {
+                return d;
+            }
+        }
+
+        return Direction.UP;
+    }
+
+    @Override
+    public long getExpansions() {
+        return this.expansions;
+    }
+
+    @Override
+    public long getFallbacks() {
+        return this.fallbacks;
+    }
+
+    @Override
+    public String toString() {
+        return "LookaheadBot";
+    }
+}
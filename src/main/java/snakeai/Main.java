@@ -0,0 +1,450 @@
+package snakeai;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSlider;
+import javax.swing.Timer;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This program manages the game of Snake and allows bots to play it.
+ *
+ * @author Jake Chiang
+ * @version v1.2
+ */
+public class Main {
+    /**
+     * Default height of the play area in number of cells. Either the width or height must be even
+     * if perfect play is to be possible.
+     */
+    public static final int GRID_HEIGHT = 20;
+    /**
+     * Default width of the play area in number of cells. Either the width or height must be even
+     * if perfect play is to be possible.
+     */
+    public static final int GRID_WIDTH = 20;
+    /**
+     * Default size of each grid cell, in pixels.
+     */
+    public static final int CELL_SIZE = 30;
+    /**
+     * Maximum delay between game steps in milliseconds.
+     */
+    public static final int MAX_DELAY = 100;
+    /**
+     * Default delay between game steps in milliseconds.
+     */
+    public static final int DEFAULT_DELAY = 50;
+    /**
+     * Maximum number of times per second that the window is redrawn. Moves made between two frames
+     * are never drawn.
+     */
+    public static final int FRAME_RATE = 60;
+
+    private static SimpleGrid grid;
+    private static Game game;
+    private static List<SnakeBot> loadedBots;
+    private static volatile SnakeBot snake;
+    private static volatile int selectedDelay = DEFAULT_DELAY;
+    private static volatile boolean playing;
+    private static volatile boolean restartRequested;
+    private static boolean budgeted;
+    private static String replayFile; // Null unless replaying a game log
+    private static long seek;
+    private static GameLog replayLog;
+    private static ReplayBot replayBot;
+    private static String recordDirectory; // Null unless games are recorded
+    private static GameRecorder recorder;
+    // The newest snapshot that hasn't been drawn yet, handed from the game loop to the renderer
+    private static final AtomicReference<BoardSnapshot> published = new AtomicReference<>();
+    // A drawn snapshot handed back to the game loop to be refilled
+    private static final AtomicReference<BoardSnapshot> free = new AtomicReference<>();
+    // Whether the game changed since the last snapshot was published. Only used by the game loop.
+    private static boolean dirty;
+    // The board bits and food bit index of the last drawn snapshot. Only used by the renderer.
+    private static long[] drawnWords;
+    private static int drawnFood = -1;
+    private static JLabel score;
+    private static JComboBox<String> botSelection;
+
+    /**
+     * Shows a window playing a game with the configured bot, or plays a headless tournament if
+     * configured to. If a game log is given, that game is replayed instead, in the window or, when
+     * headless, as fast as possible. See Config for the available settings.
+     *
+     * @param args The command line flags.
+     * @throws IOException          If the config file or game log can't be read.
+     * @throws InterruptedException If interrupted while waiting for headless games to finish.
+     * @throws ExecutionException   If a headless game threw an exception.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        Config config = Config.parse(args);
+        if (config.isHeadless()) {
+            if (config.getReplayFile() != null) {
+                Replay.run(config);
+            } else {
+                Tournament.run(config);
+            }
+            return;
+        }
+
+        selectedDelay = config.getDelay();
+        int width = config.getWidth();
+        int height = config.getHeight();
+        replayFile = config.getReplayFile();
+        seek = config.getSeek();
+        if (replayFile != null) {
+            // The play area must match the logged game
+            try (GameLog log = Replay.open(replayFile)) {
+                width = log.getWidth();
+                height = log.getHeight();
+            }
+        }
+        recordDirectory = config.getRecordDirectory();
+
+        grid = new SimpleGrid(width, height, config.getCellSize(), 1, "Snake AI");
+        grid.setGridlineColor(Color.LIGHT_GRAY);
+        grid.setColor(Game.FOOD, Color.RED);
+        grid.setColor(Game.SNAKE, Color.BLACK);
+        BitBoard empty = new BitBoard(width, height);
+        drawnWords = new long[empty.getWordCount()];
+        for (int i = 0; i < drawnWords.length; i++) {
+            drawnWords[i] = empty.getWord(i);
+        }
+
+        loadedBots = Bots.createAll(config.getSearchMode(), config.isAvoidingTraps(), config.getSearchThreads());
+        int selectedBot = 0;
+        for (int i = 0; i < loadedBots.size(); i++) {
+            if (loadedBots.get(i).toString().equals(config.getBot())) {
+                selectedBot = i;
+            }
+        }
+        snake = loadedBots.get(selectedBot);
+
+        game = new Game(width, height, new Random());
+        if (recordDirectory != null) {
+            // Added first, so that the last move is recorded before the game's end is handled
+            recorder = new GameRecorder();
+            game.addListener(recorder);
+        }
+        game.addListener(new SnapshotListener());
+        game.setMetrics(new MoveMetrics());
+        game.setMoveBudget(config.getMoveBudget() * 1000);
+        budgeted = config.getMoveBudget() > 0;
+
+        initializeGame();
+        initializeGUI();
+        run();
+    }
+
+    /**
+     * Initializes the window's GUI controls.
+     */
+    private static void initializeGUI() {
+        JFrame frame = grid.getFrame();
+
+        ////////// Control Panel \\\\\\\\\\
+        JPanel controlPanel = new JPanel();
+
+        // Speed controls
+        controlPanel.add(new JLabel("Slow"));
+        final int maxDelay = Math.max(MAX_DELAY, selectedDelay);
+        JSlider speedSlider = new JSlider(JSlider.HORIZONTAL, 0, maxDelay, maxDelay - selectedDelay);
+        speedSlider.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                JSlider source = (JSlider) e.getSource();
+                selectedDelay = maxDelay - source.getValue();
+            }
+        });
+        controlPanel.add(speedSlider);
+        controlPanel.add(new JLabel("Fast"));
+
+        // Bot selection dropdown box
+        String[] botNames = new String[loadedBots.size()];
+        for (int i = 0; i < loadedBots.size(); i++) {
+            botNames[i] = loadedBots.get(i).toString();
+        }
+        botSelection = new JComboBox<>(botNames);
+        botSelection.setSelectedIndex(loadedBots.indexOf(snake));
+        botSelection.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                snake = loadedBots.get(botSelection.getSelectedIndex());
+            }
+        });
+        controlPanel.add(botSelection);
+
+        // Run button
+        JButton runButton = new JButton("Run");
+        runButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                // The game is only touched by the game loop, so ask it to start the new game
+                restartRequested = true;
+            }
+        });
+        controlPanel.add(runButton);
+
+        // Stop button
+        JButton stopButton = new JButton("Stop");
+        stopButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                playing = false;
+            }
+        });
+        controlPanel.add(stopButton);
+
+        ////////// Statistics Display \\\\\\\\\\
+        JPanel statsPanel = new JPanel();
+        score = new JLabel();
+        updateStats(new BoardSnapshot(1, 1));
+        statsPanel.add(score);
+
+        frame.add(controlPanel, BorderLayout.SOUTH);
+        frame.add(statsPanel, BorderLayout.NORTH);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+
+        ////////// Renderer \\\\\
+        Timer renderTimer = new Timer(1000 / FRAME_RATE, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                render();
+            }
+        });
+        renderTimer.start();
+    }
+
+    /**
+     * Draws the newest snapshot published by the game loop, if there is one that hasn't been drawn
+     * yet. Only the cells that differ from the last drawn snapshot are updated: the board words are
+     * xor'ed with the last drawn ones and just the differing bits are visited, along with the old and
+     * new food cells, so the cost grows with the number of words and changed cells rather than
+     * cells. Runs on the event dispatch thread.
+     */
+    private static void render() {
+        botSelection.setEnabled(!playing && replayFile == null);
+
+        BoardSnapshot snapshot = published.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        for (int i = 0; i < drawnWords.length; i++) {
+            long changed = drawnWords[i] ^ snapshot.getWord(i);
+            drawnWords[i] ^= changed;
+            while (changed != 0) {
+                drawCell(snapshot, i << 6 | Long.numberOfTrailingZeros(changed));
+                changed &= changed - 1;
+            }
+        }
+        int food = snapshot.getFood();
+        if (food != drawnFood) {
+            if (drawnFood != -1) {
+                drawCell(snapshot, drawnFood);
+            }
+            if (food != -1) {
+                drawCell(snapshot, food);
+            }
+            drawnFood = food;
+        }
+        updateStats(snapshot);
+        free.compareAndSet(null, snapshot);
+    }
+
+    /**
+     * Updates the grid cell with the given bit index to its value in a snapshot.
+     *
+     * @param snapshot The snapshot being drawn.
+     * @param index    The bit index of the cell, (y + 1) * stride + x + 1.
+     */
+    private static void drawCell(BoardSnapshot snapshot, int index) {
+        int x = index % snapshot.getStride() - 1;
+        int y = index / snapshot.getStride() - 1;
+        grid.set(x, y, snapshot.getCell(x, y));
+    }
+
+    /**
+     * Publishes the current state of the game for the renderer to draw. Unless forced, nothing is
+     * copied while the renderer has yet to pick up the last snapshot, so the game is copied at
+     * most about once per frame however fast it is played. Runs on the game loop's thread.
+     *
+     * @param force Whether to publish even if the last snapshot hasn't been drawn yet, replacing
+     *              it. Used for states that must not be skipped, such as the end of a game.
+     */
+    private static void publish(boolean force) {
+        if (!force && published.get() != null) {
+            dirty = true;
+            return;
+        }
+
+        BoardSnapshot snapshot = free.getAndSet(null);
+        if (snapshot == null || !snapshot.fits(game.getGridWidth(), game.getGridHeight())) {
+            snapshot = new BoardSnapshot(game.getGridWidth(), game.getGridHeight());
+        }
+        snapshot.capture(game);
+        BoardSnapshot dropped = published.getAndSet(snapshot);
+        if (dropped != null) {
+            free.compareAndSet(null, dropped);
+        }
+        dirty = false;
+    }
+
+    /**
+     * Updates the GUI with the score, number of moves and move metrics of the given snapshot.
+     *
+     * @param snapshot The snapshot to show the statistics of.
+     */
+    private static void updateStats(BoardSnapshot snapshot) {
+        int moves = snapshot.getMoves();
+        int foodEaten = snapshot.getFoodEaten();
+        double ratio;
+        if (foodEaten == 0) {
+            ratio = Double.NaN;
+        } else {
+            ratio = Math.round(100.0 * moves / foodEaten) / 100.0;
+        }
+        String text = "Moves: " + moves + " Score: " + foodEaten + " (Ratio: " + ratio + ")";
+        if (snapshot.isMeasured() && moves > 0) {
+            text += String.format(" Move: %.1f/%.1f \u00b5s (p50/p99)", snapshot.getMedianMoveNanos() / 1e3,
+                    snapshot.getP99MoveNanos() / 1e3);
+            if (snapshot.getFallbacks() != -1) {
+                text += String.format(" Exp/move: %.1f Fallbacks: %d", snapshot.getExpansionsPerMove(),
+                        snapshot.getFallbacks());
+            }
+            if (!Double.isNaN(snapshot.getBytesPerMove())) {
+                text += String.format(" Alloc: %.0f B/move", snapshot.getBytesPerMove());
+            }
+        }
+        if (budgeted) {
+            text += " Late: " + snapshot.getDeadlineMisses();
+        }
+        score.setText(text);
+    }
+
+    /**
+     * Initializes the game with the currently loaded snake. Clears the grid and initializes the
+     * snake and a food piece to random locations. When replaying, the log is opened again and the
+     * logged game is started over from its seed and fast-forwarded to the configured move.
+     *
+     * @throws IOException If the game log can't be read.
+     */
+    private static void initializeGame() throws IOException {
+        if (replayFile == null) {
+            game.reset(snake);
+            playing = true;
+            return;
+        }
+
+        if (replayLog != null) {
+            replayLog.close();
+        }
+        replayLog = Replay.open(replayFile);
+        replayBot = new ReplayBot(replayLog);
+        game.reset(replayBot, replayLog.getSeed());
+        Replay.seek(game, replayBot, seek);
+        publish(true);
+        playing = !game.isOver() && replayBot.hasNext();
+    }
+
+    /**
+     * Main game loop. Runs the currently selected algorithm until it loses if playing is enabled.
+     * With no delay selected, moves are made as fast as the bot allows and the window only shows
+     * the state at each frame. A replay stops when the log runs out of moves.
+     *
+     * @throws IOException If the game log can't be read.
+     */
+    private static void run() throws IOException {
+        while (true) {
+            if (restartRequested) {
+                restartRequested = false;
+                initializeGame();
+            }
+
+            if (playing) {
+                if (replayBot != null && !replayBot.hasNext()) {
+                    playing = false;
+                    continue;
+                }
+                if (!game.step()) {
+                    playing = false;
+                    continue;
+                }
+                pause(selectedDelay);
+            } else {
+                // Publish the state the game was stopped in, then wait to be restarted
+                if (dirty) {
+                    publish(false);
+                }
+                pause(1000 / FRAME_RATE);
+            }
+        }
+    }
+
+    /**
+     * Sleeps the game loop for the given time.
+     *
+     * @param delay The time to sleep in milliseconds. If 0, returns immediately.
+     */
+    private static void pause(int delay) {
+        if (delay == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Publishes snapshots of the game for the window to draw. The grid window and the statistics
+     * display are only updated by the renderer, so the game loop never waits on them.
+     */
+    private static class SnapshotListener implements GameListener {
+        @Override
+        public void gameStarted(Game game) {
+            publish(true);
+        }
+
+        @Override
+        public void cellChanged(int x, int y, int value) {
+            // Changed cells are picked up by the next snapshot
+        }
+
+        @Override
+        public void moveMade(Game game) {
+            publish(false);
+        }
+
+        @Override
+        public void gameEnded(Game game) {
+            publish(true);
+            System.out.println((game.isWon() ? "Game won!" : "Game over!") + " (seed " + game.getSeed() + ")");
+            if (recorder != null) {
+                File log = new File(recordDirectory, game.getSnake() + "-" + game.getSeed() + GameLog.EXTENSION);
+                try {
+                    recorder.save(log.getPath());
+                    System.out.println("Recorded to " + log.getPath());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
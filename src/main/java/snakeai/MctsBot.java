@@ -0,0 +1,564 @@
+package snakeai;
+
+import java.awt.Point;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Strategy: Monte Carlo tree search. Play out many random continuations of the game, grow a tree
+ * of the moves that led to the best ones, and make the move at its root that was explored most.
+ * <p>
+ * Every playout walks down the tree choosing the move with the best upper confidence bound (UCT),
+ * adds one new node, then plays on with a cheap policy that heads for the food like GreedyBot but
+ * without searching, and otherwise moves randomly like RandomBot, for as many moves as the play
+ * area is wide and high. A playout is worth more the more food it ate and the longer the snake
+ * survived, and winning is worth the most. Food eaten in a playout reappears at random, so the
+ * tree holds sequences of moves rather than positions, and every walk down it samples new food.
+ * <p>
+ * The search is parallelized at the root: each thread grows its own tree from the same position
+ * on its own GameState, which reads the real board and copies only the pages of it that playouts
+ * write to, and takes the simulated moves back after every playout, so the threads share nothing
+ * but the read-only game and allocate nothing once their pages are copied. Their root visit
+ * counts are added up once they are done. Without a deadline, every move gets the same number of
+ * playouts, split evenly between the threads, which makes the bot's moves depend only on its seed.
+ * Given a deadline, the threads play out until it passes.
+ * <p>
+ * The number of playouts and the CPU time the threads spent on them are counted, so the number of
+ * playouts per second on each core can be reported even when there are more busy threads than
+ * cores, as when several games search at once. A move for which no playout finished in time, or
+ * which has no safe move at all, is made randomly and counts as a fallback.
+ */
+public class MctsBot implements SearchingBot {
+    /**
+     * Default number of playouts per move when there is no deadline.
+     */
+    public static final int DEFAULT_ROLLOUTS = 200;
+
+    // Weight of the exploration term of the upper confidence bound, for rewards between 0 and 1
+    private static final double EXPLORATION = Math.sqrt(0.5);
+    // Most nodes in the tree of a single thread; playouts past a full tree add no nodes
+    private static final int MAX_NODES = 1 << 14;
+
+    // Measures the CPU time of the search threads, or null if the JVM can't
+    private static final ThreadMXBean CPU_CLOCK = cpuClock();
+    // Shared by all bots, whose threads only run while one of them is choosing a move
+    private static final ExecutorService WORKERS = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final int threads;
+    private final int rolloutsPerMove;
+    private GameView game;
+    private BodyView body;
+    private Worker[] workers;
+    private final List<Future<Void>> futures = new ArrayList<>();
+    private long expansions;
+    private long fallbacks;
+    private long rollouts;
+    private long rolloutNanos;
+    private final Random rand = new Random();
+
+    /**
+     * Creates a new bot that searches on every core with the default number of playouts per move.
+     */
+    public MctsBot() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_ROLLOUTS);
+    }
+
+    /**
+     * Creates a new bot that searches on the given number of threads.
+     *
+     * @param threads         The number of threads to play out moves on, including the thread
+     *                        that asks for the move.
+     * @param rolloutsPerMove The number of playouts per move when there is no deadline.
+     */
+    public MctsBot(int threads, int rolloutsPerMove) {
+        if (threads < 1 || rolloutsPerMove < 1) {
+            throw new IllegalArgumentException("Thread and playout counts must be positive.");
+        }
+        this.threads = threads;
+        this.rolloutsPerMove = rolloutsPerMove;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.rand.setSeed(seed);
+    }
+
+    @Override
+    public void initialize(GameView game, Point start) {
+        this.game = game;
+        this.body = game.getBody();
+        this.expansions = 0;
+        this.fallbacks = 0;
+        this.rollouts = 0;
+        this.rolloutNanos = 0;
+
+        int width = game.getGridWidth();
+        int height = game.getGridHeight();
+        if (this.workers == null || !this.workers[0].state.fits(width, height)) {
+            this.workers = new Worker[this.threads];
+            for (int i = 0; i < this.threads; i++) {
+                this.workers[i] = new Worker(width, height);
+            }
+        }
+    }
+
+    @Override
+    public Direction getMove() {
+        return nextMove(false, 0);
+    }
+
+    @Override
+    public Direction getMove(long deadline) {
+        return nextMove(true, Pathfinder.searchDeadline(deadline));
+    }
+
+    /**
+     * Searches on all threads and returns the move at the root that was explored most.
+     *
+     * @param timed    Whether the threads play out until the deadline rather than a fixed number of
+     *                 times.
+     * @param deadline The System.nanoTime() value at which to stop if timed.
+     * @return The direction of this snake's next move.
+     */
+    private Direction nextMove(boolean timed, long deadline) {
+        long seed = this.rand.nextLong();
+        for (int i = 0; i < this.threads; i++) {
+            int share = this.rolloutsPerMove / this.threads + (i < this.rolloutsPerMove % this.threads ? 1 : 0);
+            this.workers[i].prepare(this.game, seed + i, share, timed, deadline);
+        }
+        search();
+
+        Direction best = null;
+        long bestVisits = 0;
+        double bestReward = 0;
+        for (int i = 0; i < Direction.COUNT; i++) {
+            Direction d = Direction.get(i);
+            long visits = 0;
+            double reward = 0;
+            for (Worker worker : this.workers) {
+                visits += worker.getVisits(d);
+                reward += worker.getReward(d);
+            }
+            if (visits > bestVisits || visits == bestVisits && visits > 0 && reward > bestReward) {
+                best = d;
+                bestVisits = visits;
+                bestReward = reward;
+            }
+        }
+        for (Worker worker : this.workers) {
+            this.expansions += worker.expansions;
+            this.rollouts += worker.rollouts;
+            this.rolloutNanos += worker.nanos;
+        }
+
+        if (best == null) {
+            this.fallbacks++;
+            return getRandomMove();
+        }
+        return best;
+    }
+
+    /**
+     * Runs every worker, all but the first on the shared threads and the first on this one, and
+     * waits until all are done.
+     */
+    private void search() {
+        this.futures.clear();
+        for (int i = 1; i < this.threads; i++) {
+            this.futures.add(WORKERS.submit(this.workers[i]));
+        }
+        this.workers[0].call();
+
+        // The workers must be finished before their trees are read, even if interrupted
+        boolean interrupted = false;
+        for (Future<Void> future : this.futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("A search thread failed.", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns a random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds.
+     *
+     * @return A random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds. If no such direction exists, returns UP.
+     */
+    private Direction getRandomMove() {
+        for (Direction d : Direction.randomOrder(this.rand)) {
+            if (this.game.isSafe(this.game.neighbor(this.body.head(), d))) {
+                return d;
+            }
+        }
+
+        return Direction.UP;
+    }
+
+    /**
+     * Returns the number of nodes added to the search trees, one for each playout until a tree is
+     * full.
+     *
+     * @return The total number of nodes added since the bot was last initialized.
+     */
+    @Override
+    public long getExpansions() {
+        return this.expansions;
+    }
+
+    @Override
+    public long getFallbacks() {
+        return this.fallbacks;
+    }
+
+    /**
+     * Returns the number of playouts finished on all threads.
+     *
+     * @return The total number of playouts since the bot was last initialized.
+     */
+    public long getRollouts() {
+        return this.rollouts;
+    }
+
+    /**
+     * Returns the CPU time the threads spent playing out moves, added up over all threads. Time a
+     * thread spent waiting for a core isn't counted, so the time stays accurate however many other
+     * threads are busy. If the JVM can't measure the CPU time of threads, the elapsed time is
+     * counted instead.
+     *
+     * @return The total search time of all threads in nanoseconds since the bot was last
+     * initialized.
+     */
+    public long getRolloutNanos() {
+        return this.rolloutNanos;
+    }
+
+    /**
+     * Returns the number of threads the bot searches on.
+     *
+     * @return The number of threads, including the one that asks for the move.
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Returns the number of playouts a single core finishes per second of CPU time.
+     *
+     * @return The playouts per second per core, or NaN if nothing was played out yet.
+     */
+    public double getRolloutsPerSecond() {
+        return this.rolloutNanos == 0 ? Double.NaN : this.rollouts * 1e9 / this.rolloutNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "MctsBot";
+    }
+
+    /**
+     * Returns the bean that measures the CPU time of threads, turning measuring on if needed.
+     *
+     * @return The bean, or null if the JVM doesn't support measuring the CPU time of threads.
+     */
+    private static ThreadMXBean cpuClock() {
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (!threads.isCurrentThreadCpuTimeSupported()) {
+                return null;
+            }
+            threads.setThreadCpuTimeEnabled(true);
+            return threads;
+        } catch (UnsupportedOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the CPU time of the calling thread, or the elapsed time if it can't be measured.
+     *
+     * @return A time in nanoseconds, only meaningful as a difference with another on the same
+     * thread.
+     */
+    private static long threadNanos() {
+        return CPU_CLOCK != null ? CPU_CLOCK.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * The search of a single thread: a tree of moves from the current position, kept in flat
+     * arrays indexed by node, where node 0 is the root. Nothing is allocated while searching.
+     */
+    private static class Worker implements Callable<Void> {
+        private final GameState state;
+        private final int[] children = new int[MAX_NODES * Direction.COUNT]; // 0 if not yet added
+        private final int[] visits = new int[MAX_NODES];
+        private final double[] rewards = new double[MAX_NODES];
+        private final int[] visited = new int[MAX_NODES]; // Nodes on the current walk down the tree
+        private final Random rand = new Random();
+        private final int rolloutMoves;
+        private int nodes;
+        // The playouts to finish, or the System.nanoTime() value to stop at if timed
+        private int rolloutLimit;
+        private boolean timed;
+        private long deadline;
+        // What the last call did
+        private long expansions;
+        private long rollouts;
+        private long nanos;
+
+        /**
+         * Creates a worker for a play area of the given size.
+         *
+         * @param width  The width of the play area in number of cells.
+         * @param height The height of the play area in number of cells.
+         */
+        public Worker(int width, int height) {
+            this.state = new GameState(width, height);
+            this.rolloutMoves = width + height;
+        }
+
+        /**
+         * Starts a new tree from the current position of the given game.
+         *
+         * @param game         The game to search.
+         * @param seed         The seed of this worker's source of randomness for this move.
+         * @param rolloutLimit The number of playouts to finish if not timed.
+         * @param timed        Whether to play out until the deadline instead.
+         * @param deadline     The System.nanoTime() value at which to stop if timed.
+         */
+        public void prepare(GameView game, long seed, int rolloutLimit, boolean timed, long deadline) {
+            this.state.reset(game);
+            this.rand.setSeed(seed);
+            this.state.setSeed(this.rand.nextLong());
+            this.rolloutLimit = rolloutLimit;
+            this.timed = timed;
+            this.deadline = deadline;
+            this.nodes = 0;
+            addNode();
+        }
+
+        @Override
+        public Void call() {
+            long start = threadNanos();
+            this.expansions = 0;
+            this.rollouts = 0;
+            while (this.timed ? System.nanoTime() - this.deadline < 0 : this.rollouts < this.rolloutLimit) {
+                iterate();
+                this.rollouts++;
+            }
+            this.nanos = threadNanos() - start;
+            return null;
+        }
+
+        /**
+         * Returns the number of playouts that started with the given move.
+         *
+         * @param d The move from the root.
+         * @return The visit count of the root's child in that direction, or 0 if it has none.
+         */
+        public int getVisits(Direction d) {
+            int child = this.children[d.ordinal()];
+            return child == 0 ? 0 : this.visits[child];
+        }
+
+        /**
+         * Returns the total reward of the playouts that started with the given move.
+         *
+         * @param d The move from the root.
+         * @return The reward of the root's child in that direction, or 0 if it has none.
+         */
+        public double getReward(Direction d) {
+            int child = this.children[d.ordinal()];
+            return child == 0 ? 0 : this.rewards[child];
+        }
+
+        /**
+         * Walks down the tree, adds a node, plays out from it and adds the reward to every node on
+         * the way, then takes all moves back.
+         */
+        private void iterate() {
+            int depth = 0;
+            int node = 0;
+            this.visited[depth++] = node;
+            boolean dead = false;
+            while (!this.state.isWon()) {
+                Direction move = select(node);
+                if (move == null) {
+                    dead = true;
+                    break;
+                }
+                this.state.apply(move);
+                int slot = node * Direction.COUNT + move.ordinal();
+                if (this.children[slot] == 0) {
+                    if (this.nodes < MAX_NODES) {
+                        this.children[slot] = addNode();
+                        this.visited[depth++] = this.children[slot];
+                        this.expansions++;
+                    }
+                    dead = !rollout();
+                    break;
+                }
+                node = this.children[slot];
+                this.visited[depth++] = node;
+            }
+
+            double reward = reward(dead);
+            for (int i = 0; i < depth; i++) {
+                this.visits[this.visited[i]]++;
+                this.rewards[this.visited[i]] += reward;
+            }
+            this.state.undo(0);
+        }
+
+        /**
+         * Returns the safe move from the given node to explore next: a random one that has no node
+         * yet, if any, and otherwise the one with the highest upper confidence bound.
+         *
+         * @param node The node the playout is at.
+         * @return The move to make, or null if every move kills the snake.
+         */
+        private Direction select(int node) {
+            Direction best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(this.visits[node]);
+            int head = this.state.getBody().head();
+            int offset = this.rand.nextInt(Direction.COUNT);
+            for (int i = 0; i < Direction.COUNT; i++) {
+                Direction d = Direction.get((offset + i) % Direction.COUNT);
+                if (!this.state.isSafe(this.state.neighbor(head, d))) {
+                    continue;
+                }
+                int child = this.children[node * Direction.COUNT + d.ordinal()];
+                if (child == 0) {
+                    return d;
+                }
+                double score = this.rewards[child] / this.visits[child]
+                        + EXPLORATION * Math.sqrt(logVisits / this.visits[child]);
+                if (score > bestScore) {
+                    best = d;
+                    bestScore = score;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Plays on with the playout policy until the snake has made the playout's number of moves,
+         * wins or dies.
+         *
+         * @return False if the snake died, true otherwise.
+         */
+        private boolean rollout() {
+            int end = this.state.getMoves() + this.rolloutMoves;
+            while (this.state.getMoves() < end && !this.state.isWon()) {
+                Direction d = policyMove();
+                if (d == null) {
+                    return false;
+                }
+                this.state.apply(d);
+            }
+            return true;
+        }
+
+        /**
+         * Returns the direction the playout policy moves in: towards the food most of the time,
+         * like GreedyBot without its search, and in a random safe direction otherwise, like
+         * RandomBot.
+         *
+         * @return A direction that doesn't kill the snake right away, or null if there is none.
+         */
+        private Direction policyMove() {
+            NeighborTable table = this.state.getNeighbors();
+            int head = this.state.getBody().head();
+            int food = this.state.getFood();
+            boolean greedy = food != -1 && this.rand.nextInt(4) != 0;
+            int before = greedy ? distance(table, head, food) : 0;
+            int offset = this.rand.nextInt(Direction.COUNT);
+
+            Direction safe = null;
+            for (int i = 0; i < Direction.COUNT; i++) {
+                Direction d = Direction.get((offset + i) % Direction.COUNT);
+                int cell = table.get(head, d);
+                if (!this.state.isSafe(cell)) {
+                    continue;
+                }
+                if (!greedy || distance(table, cell, food) < before) {
+                    return d;
+                }
+                if (safe == null) {
+                    safe = d;
+                }
+            }
+            return safe;
+        }
+
+        /**
+         * Returns the Manhattan distance between two cells.
+         *
+         * @param table The neighbor table of the play area.
+         * @param a     The index of the first cell.
+         * @param b     The index of the second cell.
+         * @return The number of moves between the cells on an empty board.
+         */
+        private static int distance(NeighborTable table, int a, int b) {
+            return Math.abs(table.getX(a) - table.getX(b)) + Math.abs(table.getY(a) - table.getY(b));
+        }
+
+        /**
+         * Returns the worth of the playout that just ended: half for surviving, in proportion to
+         * how long the snake lasted if it died, and up to half for the food it ate.
+         *
+         * @param dead Whether the snake died.
+         * @return The reward, between 0 and 1.
+         */
+        private double reward(boolean dead) {
+            if (this.state.isWon()) {
+                return 1;
+            }
+            double eaten = this.state.getFoodEaten();
+            double survived = dead ? (double) this.state.getMoves() / (this.state.getMoves() + this.rolloutMoves) : 1;
+            return 0.5 * survived + 0.5 * eaten / (eaten + 1);
+        }
+
+        /**
+         * Adds a node without children or visits to the tree.
+         *
+         * @return The index of the new node.
+         */
+        private int addNode() {
+            int node = this.nodes++;
+            for (int i = 0; i < Direction.COUNT; i++) {
+                this.children[node * Direction.COUNT + i] = 0;
+            }
+            this.visits[node] = 0;
+            this.rewards[node] = 0;
+            return node;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package snakeai;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the moves a bot makes in a game: how long each call to getMove takes, how many bytes it
+ * allocates and, for bots that search, how many nodes their searches expand and how often they
+ * fall back from their main strategy.
+ * <p>
+ * Metrics are attached to a game with Game.setMetrics, which then calls beginMove and endMove
+ * around every call to the bot. Games without metrics are not slowed down at all. The metrics
+ * are cleared whenever the game is reset.
+ * <p>
+ * Not thread safe. Metrics of games played on different threads can be combined with add.
+ */
+public class MoveMetrics {
+    // Null if the JVM can't count the bytes allocated by a thread
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long allocatedBytes;
+    private boolean allocationsCounted = THREADS != null;
+    private long expansions;
+    private long fallbacks;
+    private boolean searched;
+    // Time and allocation counter at the start of the move being measured
+    private long moveStart;
+    private long moveStartBytes;
+
+    /**
+     * Starts measuring a move. Must be called on the thread that will ask the bot for the move,
+     * right before asking.
+     */
+    public void beginMove() {
+        this.moveStartBytes = THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        this.moveStart = System.nanoTime();
+    }
+
+    /**
+     * Finishes measuring a move and records how long it took and what it cost. Must be called on
+     * the same thread as beginMove, right after the bot returned its move.
+     *
+     * @param bot The bot that made the move.
+     */
+    public void endMove(SnakeBot bot) {
+        long nanos = System.nanoTime() - this.moveStart;
+        long bytes = THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        this.latency.record(nanos);
+        this.allocatedBytes += bytes - this.moveStartBytes;
+        if (bot instanceof SearchingBot) {
+            // The bot's counters are totals since it was initialized, just like these metrics
+            SearchingBot searchingBot = (SearchingBot) bot;
+            this.expansions = searchingBot.getExpansions();
+            this.fallbacks = searchingBot.getFallbacks();
+            this.searched = true;
+        }
+    }
+
+    /**
+     * Adds the metrics of another game to these.
+     *
+     * @param other The metrics to add.
+     */
+    public void add(MoveMetrics other) {
+        this.latency.add(other.latency);
+        this.allocatedBytes += other.allocatedBytes;
+        this.allocationsCounted &= other.allocationsCounted;
+        this.expansions += other.expansions;
+        this.fallbacks += other.fallbacks;
+        this.searched |= other.searched;
+    }
+
+    /**
+     * Clears all recorded metrics.
+     */
+    public void clear() {
+        this.latency.clear();
+        this.allocatedBytes = 0;
+        this.expansions = 0;
+        this.fallbacks = 0;
+        this.searched = false;
+    }
+
+    /**
+     * Returns the histogram of the time each move took.
+     *
+     * @return The move times in nanoseconds.
+     */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * Returns the number of moves measured.
+     *
+     * @return The number of moves measured.
+     */
+    public long getMoves() {
+        return this.latency.getCount();
+    }
+
+    /**
+     * Returns the average number of bytes allocated per move.
+     *
+     * @return The bytes allocated per move, or NaN if no moves were measured or the JVM can't
+     * count allocations.
+     */
+    public double getBytesPerMove() {
+        return !this.allocationsCounted ? Double.NaN : perMove(this.allocatedBytes);
+    }
+
+    /**
+     * Returns the average number of nodes expanded per move.
+     *
+     * @return The nodes expanded per move, or NaN if no moves were measured or the bot doesn't
+     * search.
+     */
+    public double getExpansionsPerMove() {
+        return !this.searched ? Double.NaN : perMove(this.expansions);
+    }
+
+    /**
+     * Returns the total number of moves on which the bot fell back from its main strategy.
+     *
+     * @return The number of fallback moves, or -1 if the bot doesn't search.
+     */
+    public long getFallbacks() {
+        return !this.searched ? -1 : this.fallbacks;
+    }
+
+    /**
+     * Returns the fraction of moves on which the bot fell back from its main strategy.
+     *
+     * @return The fraction of fallback moves, or NaN if no moves were measured or the bot doesn't
+     * search.
+     */
+    public double getFallbackRate() {
+        return !this.searched ? Double.NaN : perMove(this.fallbacks);
+    }
+
+    /**
+     * Returns the given total divided by the number of moves measured.
+     *
+     * @param total The total to divide.
+     * @return The average per move, or NaN if no moves were measured.
+     */
+    private double perMove(long total) {
+        long moves = getMoves();
+        return moves == 0 ? Double.NaN : (double) total / moves;
+    }
+
+    /**
+     * Returns the bean that counts the bytes allocated by each thread, turning counting on if
+     * needed.
+     *
+     * @return The bean, or null if the JVM doesn't support counting allocations.
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+                return null;
+            }
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (!threads.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        } catch (UnsupportedOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
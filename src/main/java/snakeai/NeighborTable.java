@@ -0,0 +1,117 @@
+package snakeai;
+
+/**
+ * The adjacent cells and the coordinates of every cell of a play area, computed once so that
+ * finding a neighbor is a single array lookup instead of coordinate arithmetic and bounds checks.
+ * <p>
+ * Cells are identified by their index, y * width + x, and directions by their ordinal. Tables are
+ * immutable, so one table is shared by everything that works on a play area of the same size.
+ */
+public final class NeighborTable {
+    // The most recently created table, reused while the play area keeps the same size
+    private static volatile NeighborTable last;
+
+    private final int width;
+    private final int height;
+    private final int[] neighbors; // Neighbors of cell c are at c * Direction.COUNT + ordinal
+    private final int[] xs;
+    private final int[] ys;
+
+    private NeighborTable(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.neighbors = new int[width * height * Direction.COUNT];
+        this.xs = new int[width * height];
+        this.ys = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int cell = y * width + x;
+                this.xs[cell] = x;
+                this.ys[cell] = y;
+                for (int d = 0; d < Direction.COUNT; d++) {
+                    Direction direction = Direction.get(d);
+                    int nx = x + direction.getDx();
+                    int ny = y + direction.getDy();
+                    boolean inBounds = nx >= 0 && ny >= 0 && nx < width && ny < height;
+                    this.neighbors[cell * Direction.COUNT + d] = inBounds ? ny * width + nx : -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the neighbor table of a play area of the given size.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     * @return A table of the neighbors of every cell of the play area.
+     */
+    public static NeighborTable of(int width, int height) {
+        NeighborTable table = last;
+        if (table == null || table.width != width || table.height != height) {
+            table = new NeighborTable(width, height);
+            last = table;
+        }
+        return table;
+    }
+
+    /**
+     * Returns the cell adjacent to the given one in the direction with the given ordinal.
+     *
+     * @param cell      The index of the cell.
+     * @param direction The ordinal of the direction of the adjacent cell.
+     * @return The index of the adjacent cell, or -1 if it is outside of the play area.
+     */
+    public int get(int cell, int direction) {
+        return this.neighbors[cell * Direction.COUNT + direction];
+    }
+
+    /**
+     * Returns the cell adjacent to the given one in the given direction.
+     *
+     * @param cell      The index of the cell.
+     * @param direction The direction of the adjacent cell.
+     * @return The index of the adjacent cell, or -1 if it is outside of the play area.
+     */
+    public int get(int cell, Direction direction) {
+        return this.neighbors[cell * Direction.COUNT + direction.ordinal()];
+    }
+
+    /**
+     * Returns the x-coordinate of the given cell.
+     *
+     * @param cell The index of the cell.
+     * @return The x-coordinate of the cell.
+     */
+    public int getX(int cell) {
+        return this.xs[cell];
+    }
+
+    /**
+     * Returns the y-coordinate of the given cell.
+     *
+     * @param cell The index of the cell.
+     * @return The y-coordinate of the cell.
+     */
+    public int getY(int cell) {
+        return this.ys[cell];
+    }
+
+    /**
+     * Returns the width of the play area.
+     *
+     * @return The width of the play area in number of cells.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the play area.
+     *
+     * @return The height of the play area in number of cells.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+}
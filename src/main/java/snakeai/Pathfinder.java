@@ -0,0 +1,678 @@
+package snakeai;
+
+import java.util.Arrays;
+
+/**
+ * A reusable A* search over the cells of the play area.
+ * <p>
+ * Cells are identified by their index, y * width + x. All search state is kept in primitive arrays
+ * sized to the play area and allocated once, and each search is given a new generation number so
+ * that the arrays never need to be cleared. Once created, searching allocates nothing.
+ * <p>
+ * Every move costs 1 and the heuristic is the Manhattan distance weighted by 1.001, which breaks
+ * ties between equally short paths in favor of the ones closer to the target. To keep the scores
+ * integral, nodes are ordered by 1000 times their f-score.
+ * <p>
+ * The open set is either an indexed binary heap or, since all scores are small integers, a bucket
+ * queue (Dial's algorithm) with one bucket per unweighted f-score. The bucket queue adds and
+ * removes nodes in constant time. It breaks ties between nodes with equal f-scores by taking the
+ * most recently added one first, which also tends to favor nodes closer to the target. The
+ * heuristic is consistent, so both modes find shortest paths, but they break ties differently and
+ * often choose different ones of equal length. Bots using them make different moves, and games
+ * played with them have different outcomes.
+ * <p>
+ * A search can be given a deadline, in which case it stops once the deadline has passed and
+ * returns the first move towards the closest cell to the target that it expanded.
+ * <p>
+ * The same arrays also back a breadth-first search that finds the distance to every reachable
+ * cell, for bots that want to get as far away as possible.
+ */
+public class Pathfinder {
+    // Number of expansions between checks of a timed search's deadline. Must be a power of two.
+    private static final int DEADLINE_CHECK_INTERVAL = 16;
+    // Fraction of the time left before a move's deadline that searches leave unused, as a shift
+    private static final int DEADLINE_RESERVE_SHIFT = 3;
+
+    /**
+     * The data structure used for the open set.
+     */
+    public enum Mode {
+        /**
+         * An indexed binary heap ordered by weighted f-score. O(log n) per operation.
+         */
+        BINARY_HEAP,
+        /**
+         * A bucket queue indexed by unweighted f-score, taking the newest node of a bucket first.
+         * O(1) per operation. Finds paths as short as the binary heap's, but not always the same
+         * paths, so the moves and game outcomes of the two modes differ.
+         */
+        BUCKET_QUEUE,
+        /**
+         * A binary heap, but bots that support it use an IncrementalPathfinder to repair their
+         * previous search after every move instead of searching from scratch.
+         */
+        INCREMENTAL
+    }
+    /**
+     * Decides which cells a search may enter.
+     */
+    public interface Traversal {
+        /**
+         * Returns whether the search may move into the given cell. Only called for in-bounds cells
+         * that have not been expanded yet.
+         *
+         * @param cell The index of the cell.
+         * @return True if the cell can be moved into, false otherwise.
+         */
+        boolean canEnter(int cell);
+    }
+
+    private final Mode mode;
+    private final int width;
+    private final int height;
+    private final NeighborTable neighbors;
+    private final int[] gScores;
+    private final int[] parents;
+    private final int[] seen; // Generation in which a cell was last added to the open set
+    private final int[] closed; // Generation in which a cell was last expanded
+    private final int[] queue; // Breadth-first search queue
+    private final long[] keys;
+    private final int[] heap;
+    private final int[] heapIndex;
+    private int heapSize;
+    // Bucket queue: a doubly linked list of cells per f-score
+    private final int[] bucketHeads;
+    private final int[] nextInBucket;
+    private final int[] prevInBucket;
+    private final int[] buckets; // The f-score bucket each open cell is in
+    private int lowestBucket;
+    private int highestBucket;
+    private int openSize;
+    private int generation;
+    private int pathLength;
+    private int pathEnd; // The cell the last path found leads to
+    private int expansions;
+    private boolean timedOut;
+
+    /**
+     * Creates a pathfinder for a play area of the given size that uses a binary heap.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     */
+    public Pathfinder(int width, int height) {
+        this(width, height, Mode.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a pathfinder for a play area of the given size.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     * @param mode   The data structure to use for the open set.
+     */
+    public Pathfinder(int width, int height, Mode mode) {
+        int cells = width * height;
+        this.mode = mode;
+        this.width = width;
+        this.height = height;
+        this.neighbors = NeighborTable.of(width, height);
+        this.gScores = new int[cells];
+        this.parents = new int[cells];
+        this.seen = new int[cells];
+        this.closed = new int[cells];
+        this.queue = new int[cells];
+        if (mode != Mode.BUCKET_QUEUE) {
+            this.keys = new long[cells];
+            this.heap = new int[cells];
+            this.heapIndex = new int[cells];
+            this.bucketHeads = null;
+            this.nextInBucket = null;
+            this.prevInBucket = null;
+            this.buckets = null;
+        } else {
+            this.keys = null;
+            this.heap = null;
+            this.heapIndex = null;
+            // A path visits each cell at most once, so g <= cells and h <= width + height
+            this.bucketHeads = new int[cells + width + height + 1];
+            Arrays.fill(this.bucketHeads, -1);
+            this.nextInBucket = new int[cells];
+            this.prevInBucket = new int[cells];
+            this.buckets = new int[cells];
+        }
+        this.generation = 0;
+    }
+
+    /**
+     * Returns whether this pathfinder searches a play area of the given size with the given mode.
+     *
+     * @param width  The width of the play area in number of cells.
+     * @param height The height of the play area in number of cells.
+     * @param mode   The data structure used for the open set.
+     * @return True if this pathfinder can be used for the given play area, false otherwise.
+     */
+    public boolean fits(int width, int height, Mode mode) {
+        return this.width == width && this.height == height && this.mode == mode;
+    }
+
+    /**
+     * Returns the data structure this pathfinder uses for the open set.
+     *
+     * @return The open set mode of this pathfinder.
+     */
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * Returns the index of the cell at the given coordinates.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The index of the cell.
+     */
+    public int cell(int x, int y) {
+        return y * this.width + x;
+    }
+
+    /**
+     * Returns the cell adjacent to the given one in the given direction.
+     *
+     * @param cell The index of the cell.
+     * @param d    The direction of the adjacent cell.
+     * @return The index of the adjacent cell, or -1 if it is outside of the play area.
+     */
+    public int neighbor(int cell, Direction d) {
+        return this.neighbors.get(cell, d);
+    }
+
+    /**
+     * Calculates the shortest path between the given cells and returns the direction to move in
+     * order to take that path.
+     *
+     * @param start     The index of the cell to start from.
+     * @param target    The index of the cell to find a path to.
+     * @param traversal Decides which cells the path may go through.
+     * @return The direction to move from the start in order to take the shortest path to the
+     * target, or null if there is no path or the start is the target.
+     */
+    public Direction findPath(int start, int target, Traversal traversal) {
+        return findPath(start, target, traversal, false, 0);
+    }
+
+    /**
+     * Calculates the shortest path between the given cells and returns the direction to move in
+     * order to take that path, giving up once the given deadline passes. If it gives up, the
+     * search returns the first move of the path to the expanded cell closest to the target, and
+     * isTimedOut returns true until the next search.
+     *
+     * @param start     The index of the cell to start from.
+     * @param target    The index of the cell to find a path to.
+     * @param traversal Decides which cells the path may go through.
+     * @param deadline  The value of System.nanoTime() after which the search gives up.
+     * @return The direction to move from the start in order to take the shortest path to the
+     * target or, if the search gave up, to the closest cell found. Null if there is no path, the
+     * start is the target, or the search gave up before moving away from the start.
+     */
+    public Direction findPath(int start, int target, Traversal traversal, long deadline) {
+        return findPath(start, target, traversal, true, deadline);
+    }
+
+    /**
+     * Calculates the shortest path between the given cells, optionally giving up at a deadline.
+     *
+     * @param start     The index of the cell to start from.
+     * @param target    The index of the cell to find a path to.
+     * @param traversal Decides which cells the path may go through.
+     * @param timed     Whether the search has a deadline.
+     * @param deadline  The value of System.nanoTime() after which a timed search gives up.
+     * @return The direction of the first move of the path found.
+     */
+    private Direction findPath(int start, int target, Traversal traversal, boolean timed, long deadline) {
+        nextGeneration();
+        clearOpenSet();
+        this.pathLength = 0;
+        this.expansions = 0;
+        this.timedOut = false;
+        // The expanded cell closest to the target, only tracked by timed searches
+        int closest = start;
+        int closestDistance = Integer.MAX_VALUE;
+
+        int targetX = target % this.width;
+        int targetY = target / this.width;
+
+        this.gScores[start] = 0;
+        this.parents[start] = -1;
+        this.seen[start] = this.generation;
+        push(start, 0, targetX, targetY);
+
+        while (this.openSize > 0) {
+            // Get node with lowest fScore
+            int current = pop();
+
+            if (current == target) {
+                return firstStep(start, target);
+            }
+
+            this.closed[current] = this.generation;
+            this.expansions++;
+
+            if (timed) {
+                int distance = Math.abs(this.neighbors.getX(current) - targetX)
+                        + Math.abs(this.neighbors.getY(current) - targetY);
+                if (distance < closestDistance) {
+                    closest = current;
+                    closestDistance = distance;
+                }
+                // Reading the clock costs about as much as an expansion, so only check it now and then
+                if ((this.expansions & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() - deadline > 0) {
+                    this.timedOut = true;
+                    return firstStep(start, closest);
+                }
+            }
+
+            int tentativeGScore = this.gScores[current] + 1;
+            for (int d = 0; d < Direction.COUNT; d++) {
+                int neighbor = this.neighbors.get(current, d);
+                if (neighbor == -1) {
+                    continue;
+                }
+
+                // Ignore already evaluated nodes and ones that aren't traversable
+                if (this.closed[neighbor] == this.generation || !traversal.canEnter(neighbor)) {
+                    continue;
+                }
+
+                if (this.seen[neighbor] != this.generation) {
+                    // Discover a new node
+                    this.seen[neighbor] = this.generation;
+                    this.gScores[neighbor] = tentativeGScore;
+                    this.parents[neighbor] = current;
+                    push(neighbor, tentativeGScore, targetX, targetY);
+                } else if (tentativeGScore < this.gScores[neighbor]) {
+                    // This is a better path
+                    this.gScores[neighbor] = tentativeGScore;
+                    this.parents[neighbor] = current;
+                    decreaseKey(neighbor, tentativeGScore, targetX, targetY);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the distance from the given cell to every cell reachable from it with a breadth-first
+     * search, and returns the cell that is farthest away. Each cell is visited at most once, so
+     * this takes time linear in the number of cells. The distances can be read with getDistance
+     * until the next search.
+     *
+     * @param start     The index of the cell to start from.
+     * @param traversal Decides which cells the search may go through.
+     * @return The index of the reachable cell that is farthest away. Of equally far cells, the one
+     * found last is returned. If no cell can be reached, returns the start.
+     */
+    public int findFarthest(int start, Traversal traversal) {
+        return findFarthest(start, traversal, false, 0);
+    }
+
+    /**
+     * Finds the cell farthest away from the given cell like findFarthest, but gives up once the
+     * given deadline passes. If it gives up, the farthest cell found so far is returned, and
+     * isTimedOut returns true until the next search.
+     *
+     * @param start     The index of the cell to start from.
+     * @param traversal Decides which cells the search may go through.
+     * @param deadline  The value of System.nanoTime() after which the search gives up.
+     * @return The index of the farthest cell found.
+     */
+    public int findFarthest(int start, Traversal traversal, long deadline) {
+        return findFarthest(start, traversal, true, deadline);
+    }
+
+    /**
+     * Finds the cell farthest away from the given cell, optionally giving up at a deadline.
+     *
+     * @param start     The index of the cell to start from.
+     * @param traversal Decides which cells the search may go through.
+     * @param timed     Whether the search has a deadline.
+     * @param deadline  The value of System.nanoTime() after which a timed search gives up.
+     * @return The index of the farthest cell found.
+     */
+    private int findFarthest(int start, Traversal traversal, boolean timed, long deadline) {
+        nextGeneration();
+        this.expansions = 0;
+        this.timedOut = false;
+
+        this.gScores[start] = 0;
+        this.seen[start] = this.generation;
+        this.queue[0] = start;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int current = this.queue[head++];
+            this.expansions++;
+
+            if (timed && (this.expansions & (DEADLINE_CHECK_INTERVAL - 1)) == 0
+                    && System.nanoTime() - deadline > 0) {
+                this.timedOut = true;
+                break;
+            }
+
+            int distance = this.gScores[current] + 1;
+            for (int d = 0; d < Direction.COUNT; d++) {
+                int neighbor = this.neighbors.get(current, d);
+                if (neighbor == -1) {
+                    continue;
+                }
+
+                // Mark cells as visited when they are queued so that none is queued twice
+                if (this.seen[neighbor] == this.generation || !traversal.canEnter(neighbor)) {
+                    continue;
+                }
+                this.seen[neighbor] = this.generation;
+                this.gScores[neighbor] = distance;
+                this.queue[tail++] = neighbor;
+            }
+        }
+        return this.queue[tail - 1];
+    }
+
+    /**
+     * Returns the distance to the given cell found by the last call to findFarthest. Only valid
+     * until the next search of any kind.
+     *
+     * @param cell The index of the cell.
+     * @return The number of moves from the start to the cell, or -1 if it could not be reached.
+     */
+    public int getDistance(int cell) {
+        return this.seen[cell] == this.generation ? this.gScores[cell] : -1;
+    }
+
+    /**
+     * Returns the number of moves in the last path found.
+     *
+     * @return The number of moves in the path found by the last search, or 0 if no path was found.
+     */
+    public int getPathLength() {
+        return this.pathLength;
+    }
+
+    /**
+     * Copies the cells of the last path found into the given array, in the order they are moved
+     * into, ending with the target. Only valid until the next search of any kind.
+     *
+     * @param path The array to fill. Must hold at least getPathLength() cells.
+     * @return The number of cells copied, which is the length of the path.
+     */
+    public int getPath(int[] path) {
+        int current = this.pathEnd;
+        for (int i = this.pathLength - 1; i >= 0; i--) {
+            path[i] = current;
+            current = this.parents[current];
+        }
+        return this.pathLength;
+    }
+
+    /**
+     * Returns the deadline that searches for a move should give up at, so that the move can still
+     * be returned before the move's own deadline. A search only notices that its deadline has
+     * passed every few expansions and the bot still has to pick a move afterwards, so an eighth of
+     * the time left is held back.
+     *
+     * @param moveDeadline The value of System.nanoTime() by which the move should be returned.
+     * @return The value of System.nanoTime() at which searches should give up.
+     */
+    public static long searchDeadline(long moveDeadline) {
+        long left = moveDeadline - System.nanoTime();
+        return left <= 0 ? moveDeadline : moveDeadline - (left >> DEADLINE_RESERVE_SHIFT);
+    }
+
+    /**
+     * Returns whether the last search gave up because its deadline passed.
+     *
+     * @return True if the last search ran out of time, false otherwise.
+     */
+    public boolean isTimedOut() {
+        return this.timedOut;
+    }
+
+    /**
+     * Returns the number of nodes expanded by the last search.
+     *
+     * @return The number of nodes taken off of the open set or queue and expanded by the last
+     * search.
+     */
+    public int getExpansions() {
+        return this.expansions;
+    }
+
+    /**
+     * Walks back along the path to the target and returns the direction of its first move. Also
+     * records the length of the path.
+     *
+     * @param start  The index of the cell the path starts from.
+     * @param target The index of the cell the path ends at.
+     * @return The direction of the first move of the path, or null if the start is the target.
+     */
+    private Direction firstStep(int start, int target) {
+        if (start == target) {
+            return null;
+        }
+        int current = target;
+        int length = 1;
+        while (this.parents[current] != start) {
+            current = this.parents[current];
+            length++;
+        }
+        this.pathLength = length;
+        this.pathEnd = target;
+
+        for (int d = 0; d < Direction.COUNT; d++) {
+            if (this.neighbors.get(start, d) == current) {
+                return Direction.get(d);
+            }
+        }
+        throw new IllegalStateException("Path does not start next to its start cell.");
+    }
+
+    /**
+     * Starts a new search generation, clearing the stamp arrays only when the generation counter
+     * wraps around.
+     */
+    private void nextGeneration() {
+        this.generation++;
+        if (this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.seen, 0);
+            Arrays.fill(this.closed, 0);
+            this.generation = 1;
+        }
+    }
+
+    /**
+     * Returns the priority of a node, which is 1000 times its f-score with a heuristic weight of
+     * 1.001.
+     *
+     * @param gScore  The real cost to reach the node.
+     * @param x       The x-coordinate of the node.
+     * @param y       The y-coordinate of the node.
+     * @param targetX The x-coordinate of the target.
+     * @param targetY The y-coordinate of the target.
+     * @return The priority of the node. Lower values are expanded first.
+     */
+    private static long key(int gScore, int x, int y, int targetX, int targetY) {
+        long h = Math.abs(x - targetX) + Math.abs(y - targetY);
+        return 1000L * gScore + 1001L * h;
+    }
+
+    /**
+     * Empties the open set. Only the buckets that the previous search left cells in are cleared.
+     */
+    private void clearOpenSet() {
+        if (this.mode == Mode.BUCKET_QUEUE && this.openSize > 0) {
+            Arrays.fill(this.bucketHeads, this.lowestBucket, this.highestBucket + 1, -1);
+        }
+        this.heapSize = 0;
+        this.openSize = 0;
+        this.lowestBucket = Integer.MAX_VALUE;
+        this.highestBucket = -1;
+    }
+
+    /**
+     * Adds a cell to the open set.
+     *
+     * @param cell    The index of the cell.
+     * @param gScore  The real cost to reach the cell.
+     * @param targetX The x-coordinate of the target.
+     * @param targetY The y-coordinate of the target.
+     */
+    private void push(int cell, int gScore, int targetX, int targetY) {
+        int x = this.neighbors.getX(cell);
+        int y = this.neighbors.getY(cell);
+        this.openSize++;
+        if (this.mode == Mode.BUCKET_QUEUE) {
+            addToBucket(cell, gScore + Math.abs(x - targetX) + Math.abs(y - targetY));
+            return;
+        }
+        this.keys[cell] = key(gScore, x, y, targetX, targetY);
+        int i = this.heapSize++;
+        this.heap[i] = cell;
+        this.heapIndex[cell] = i;
+        siftUp(i);
+    }
+
+    /**
+     * Removes and returns the cell with the lowest priority from the open set.
+     *
+     * @return The index of the removed cell.
+     */
+    private int pop() {
+        this.openSize--;
+        if (this.mode == Mode.BUCKET_QUEUE) {
+            while (this.bucketHeads[this.lowestBucket] == -1) {
+                this.lowestBucket++;
+            }
+            int top = this.bucketHeads[this.lowestBucket];
+            removeFromBucket(top);
+            return top;
+        }
+        int top = this.heap[0];
+        int last = this.heap[--this.heapSize];
+        if (this.heapSize > 0) {
+            this.heap[0] = last;
+            this.heapIndex[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Lowers the priority of a cell that is already in the open set.
+     *
+     * @param cell    The index of the cell.
+     * @param gScore  The new, lower real cost to reach the cell.
+     * @param targetX The x-coordinate of the target.
+     * @param targetY The y-coordinate of the target.
+     */
+    private void decreaseKey(int cell, int gScore, int targetX, int targetY) {
+        int x = this.neighbors.getX(cell);
+        int y = this.neighbors.getY(cell);
+        if (this.mode == Mode.BUCKET_QUEUE) {
+            removeFromBucket(cell);
+            addToBucket(cell, gScore + Math.abs(x - targetX) + Math.abs(y - targetY));
+            return;
+        }
+        this.keys[cell] = key(gScore, x, y, targetX, targetY);
+        siftUp(this.heapIndex[cell]);
+    }
+
+    /**
+     * Adds a cell to the front of the bucket of the given f-score.
+     *
+     * @param cell   The index of the cell.
+     * @param fScore The unweighted f-score of the cell.
+     */
+    private void addToBucket(int cell, int fScore) {
+        int head = this.bucketHeads[fScore];
+        this.nextInBucket[cell] = head;
+        this.prevInBucket[cell] = -1;
+        if (head != -1) {
+            this.prevInBucket[head] = cell;
+        }
+        this.bucketHeads[fScore] = cell;
+        this.buckets[cell] = fScore;
+        if (fScore < this.lowestBucket) {
+            this.lowestBucket = fScore;
+        }
+        if (fScore > this.highestBucket) {
+            this.highestBucket = fScore;
+        }
+    }
+
+    /**
+     * Unlinks a cell from the bucket it is in.
+     *
+     * @param cell The index of the cell.
+     */
+    private void removeFromBucket(int cell) {
+        int next = this.nextInBucket[cell];
+        int prev = this.prevInBucket[cell];
+        if (prev == -1) {
+            this.bucketHeads[this.buckets[cell]] = next;
+        } else {
+            this.nextInBucket[prev] = next;
+        }
+        if (next != -1) {
+            this.prevInBucket[next] = prev;
+        }
+    }
+
+    /**
+     * Moves the cell at the given heap position up until its parent has a lower priority.
+     *
+     * @param i The position in the heap of the cell to move.
+     */
+    private void siftUp(int i) {
+        int cell = this.heap[i];
+        long key = this.keys[cell];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentCell = this.heap[parent];
+            if (this.keys[parentCell] <= key) {
+                break;
+            }
+            this.heap[i] = parentCell;
+            this.heapIndex[parentCell] = i;
+            i = parent;
+        }
+        this.heap[i] = cell;
+        this.heapIndex[cell] = i;
+    }
+
+    /**
+     * Moves the cell at the given heap position down until its children have higher priorities.
+     *
+     * @param i The position in the heap of the cell to move.
+     */
+    private void siftDown(int i) {
+        int cell = this.heap[i];
+        long key = this.keys[cell];
+        int half = this.heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < this.heapSize && this.keys[this.heap[right]] < this.keys[this.heap[child]]) {
+                child = right;
+            }
+            int childCell = this.heap[child];
+            if (key <= this.keys[childCell]) {
+                break;
+            }
+            this.heap[i] = childCell;
+            this.heapIndex[childCell] = i;
+            i = child;
+        }
+        this.heap[i] = cell;
+        this.heapIndex[cell] = i;
+    }
+}
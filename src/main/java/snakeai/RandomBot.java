@@ -0,0 +1,44 @@
+package snakeai;
+
+import java.awt.Point;
+import java.util.Random;
+
+/**
+ * Strategy: Make random moves that don't collide with itself or go out of bounds.
+ */
+public class RandomBot implements SnakeBot {
+    private GameView game;
+    private BodyView body;
+    private final Random rand = new Random();
+
+    @Override
+    public void setSeed(long seed) {
+        this.rand.setSeed(seed);
+    }
+
+    @Override
+    public void initialize(GameView game, Point start) {
+        this.game = game;
+        this.body = game.getBody();
+    }
+
+    @Override
+    public Direction getMove() {
+        Direction[] possibleDirections = Direction.randomOrder(this.rand);
+
+        Direction nextDirection = possibleDirections[0];
+        for (Direction d : possibleDirections) {
+            if (this.game.isSafe(this.game.neighbor(this.body.head(), d))) {
+                nextDirection = d;
+                break;
+            }
+        }
+
+        return nextDirection;
+    }
+
+    @Override
+    public String toString() {
+        return "RandomBot";
+    }
+}
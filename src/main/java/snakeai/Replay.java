@@ -0,0 +1,80 @@
+package snakeai;
+
+import java.awt.Point;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Replays a game log without a window, as fast as the game can be stepped, and prints the state
+ * of the game where the replay stops. With a seek, the replay stops at the given move, which makes
+ * it possible to look at the moves leading up to a rare death without playing the game again.
+ * <p>
+ * Takes the same settings as Main; see Config.
+ */
+public class Replay {
+    private Replay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        run(Config.parse(args));
+    }
+
+    /**
+     * Replays the configured log and prints how the game stood where the replay stopped.
+     *
+     * @param config The settings, which name the log and the move to stop at, if any.
+     * @throws IOException If the log can't be read.
+     */
+    public static void run(Config config) throws IOException {
+        try (GameLog log = open(config.getReplayFile())) {
+            Game game = new Game(log.getWidth(), log.getHeight(), new Random());
+            ReplayBot bot = new ReplayBot(log);
+            game.reset(bot, log.getSeed());
+
+            long stop = config.getSeek() > 0 ? Math.min(config.getSeek(), log.getMoveCount()) : log.getMoveCount();
+            long start = System.nanoTime();
+            seek(game, bot, stop);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.println("Replayed " + game.getMoves() + " of " + log.getMoveCount() + " moves of "
+                    + log.getBotName() + " on a " + log.getWidth() + "x" + log.getHeight() + " grid (seed "
+                    + log.getSeed() + ") in " + elapsed / 1000000 + " ms, "
+                    + String.format(Locale.ROOT, "%.1f", game.getMoves() / (elapsed / 1e9) / 1e6) + " million moves/s");
+            Point head = game.getHeadPos();
+            Point food = game.getFoodPos();
+            String state = game.isOver() ? (game.isWon() ? "won" : "died") : "running";
+            System.out.println("Move " + game.getMoves() + ": " + state + ", score " + game.getFoodEaten()
+                    + ", length " + game.getSnakeLength() + ", head (" + head.x + ", " + head.y + "), food "
+                    + (food == null ? "none" : "(" + food.x + ", " + food.y + ")") + ", last move "
+                    + game.getLastMove());
+        }
+    }
+
+    /**
+     * Opens a game log file for streaming.
+     *
+     * @param fileName The name of the log file.
+     * @return The opened log.
+     * @throws IOException If the file can't be read or doesn't hold a log.
+     */
+    public static GameLog open(String fileName) throws IOException {
+        return new GameLog(new BufferedInputStream(new FileInputStream(fileName)));
+    }
+
+    /**
+     * Fast-forwards a replayed game by making logged moves until the given move is reached, the
+     * game ends or the log runs out.
+     *
+     * @param game The game being replayed, reset with the log's seed.
+     * @param bot  The bot replaying the log.
+     * @param move The number of moves the game should have made once this returns.
+     */
+    public static void seek(Game game, ReplayBot bot, long move) {
+        while (game.getMoves() < move && bot.hasNext() && game.step()) {
+            // Keep stepping
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package snakeai;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Strategy: Make the moves read from a game log. Playing a game reset with the log's seed replays
+ * the logged game exactly.
+ */
+public class ReplayBot implements SnakeBot {
+    private final GameLog log;
+
+    /**
+     * Creates a new bot that replays the given log.
+     *
+     * @param log The log to read moves from. Each move is read when the bot is asked for it.
+     */
+    public ReplayBot(GameLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void initialize(GameView game, Point start) {
+        if (game.getGridWidth() != this.log.getWidth() || game.getGridHeight() != this.log.getHeight()) {
+            throw new IllegalArgumentException("The play area is not the size of the logged game.");
+        }
+    }
+
+    /**
+     * Returns the next move of the log.
+     *
+     * @return The direction of the next logged move.
+     * @throws IllegalStateException If all moves of the log have been made.
+     * @throws UncheckedIOException  If the log can't be read.
+     */
+    @Override
+    public Direction getMove() {
+        try {
+            return this.log.nextMove();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns whether the log has moves left to make.
+     *
+     * @return True if the log has moves left, false otherwise.
+     */
+    public boolean hasNext() {
+        return this.log.hasNext();
+    }
+
+    @Override
+    public String toString() {
+        return this.log.getBotName();
+    }
+}
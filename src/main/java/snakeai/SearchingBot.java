@@ -0,0 +1,23 @@
+package snakeai;
+
+/**
+ * A bot that decides its moves by searching the play area, and counts how much work its searches
+ * do and how often they fail to find what the bot wanted.
+ */
+public interface SearchingBot extends SnakeBot {
+    /**
+     * Returns the number of nodes the bot's searches have expanded.
+     *
+     * @return The total number of nodes expanded by all searches since the bot was last
+     * initialized.
+     */
+    long getExpansions();
+
+    /**
+     * Returns the number of moves on which the bot fell back from its main strategy, such as
+     * making a random move because no path to the food was found.
+     *
+     * @return The total number of fallback moves since the bot was last initialized.
+     */
+    long getFallbacks();
+}
@@ -1,3 +1,5 @@
+package snakeai;
+
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import java.awt.Color;
@@ -5,10 +7,14 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,13 +49,19 @@ import java.util.Map;
  * text, and text color, which are then drawn in any box containing the corresponding value.
  *
  * @author Jake Chiang
- * @version 1.2.6
+ * @version 1.2.9
  */
 public class SimpleGrid {
+    // Values below this are looked up in an array rather than a map
+    private static final int MAX_DENSE_VALUE = 1 << 16;
+
     private GridPanel panel;
     private JFrame frame;
     private List<int[][]> grids;
-    private Map<Integer, ValueData> valueData;
+    // Data of values from 0 up to MAX_DENSE_VALUE, indexed by value. Grown as values are used.
+    private ValueData[] valueData;
+    // Data of all other values
+    private Map<Integer, ValueData> sparseValueData;
     private volatile boolean mouseDown;
     private boolean autoRepaint;
 
@@ -77,8 +89,10 @@ public class SimpleGrid {
         this.frame = new JFrame(name);
         this.grids = new ArrayList<>();
         addLayer(); // Create default grid layer
-        this.valueData = new HashMap<>();
-        this.valueData.put(0, new ValueData(null, ValueData.DEFAULT_TEXT_COLOR, '\0'));
+        this.valueData = new ValueData[8];
+        this.sparseValueData = new HashMap<>();
+        this.valueData[0] = new ValueData(null, ValueData.DEFAULT_TEXT_COLOR, '\0');
+        this.panel.updateCells();
         this.mouseDown = false;
         this.autoRepaint = true;
 
@@ -179,6 +193,9 @@ public class SimpleGrid {
      */
     public void addLayer() {
         this.grids.add(new int[getHeight()][getWidth()]);
+        if (this.valueData != null) {
+            this.panel.updateCells();
+        }
     }
 
     /**
@@ -291,6 +308,7 @@ public class SimpleGrid {
         }
         this.grids.get(layer)[y][x] = value;
         ensureValueData(value);
+        this.panel.updateCell(x, y);
 
         // Only repaint this cell. Slightly faster than repainting everything with repaint()
         int cellX = x * (this.panel.cellSize + this.panel.gridlineWeight) + this.panel.gridlineWeight;
@@ -324,11 +342,13 @@ public class SimpleGrid {
         if (layer < 0 || layer > this.grids.size() - 1) {
             return;
         }
+        ensureValueData(value);
         for (int x = 0; x < this.panel.width; x++) {
             for (int y = 0; y < this.panel.height; y++) {
                 this.grids.get(layer)[y][x] = value;
             }
         }
+        this.panel.updateCells();
         tryRepaint();
     }
 
@@ -360,10 +380,12 @@ public class SimpleGrid {
         if (layer < 0 || layer > this.grids.size() - 1) {
             return;
         }
+        ensureValueData(newValue);
         for (int x = 0; x < this.panel.width; x++) {
             for (int y = 0; y < this.panel.height; y++) {
                 if (this.grids.get(layer)[y][x] == currentValue) {
                     this.grids.get(layer)[y][x] = newValue;
+                    this.panel.updateCell(x, y);
                 }
             }
         }
@@ -400,9 +422,12 @@ public class SimpleGrid {
         if (row < 0 || row >= this.panel.height || layer < 0 || layer > this.grids.size() - 1) {
             return;
         }
+        ensureValueData(value);
         for (int x = 0; x < this.panel.width; x++) {
             this.grids.get(layer)[row][x] = value;
+            this.panel.updateCell(x, row);
         }
+        tryRepaint();
     }
 
     /**
@@ -435,9 +460,12 @@ public class SimpleGrid {
         if (column < 0 || column >= this.panel.width || layer < 0 || layer > this.grids.size() - 1) {
             return;
         }
+        ensureValueData(value);
         for (int y = 0; y < this.panel.height; y++) {
             this.grids.get(layer)[y][column] = value;
+            this.panel.updateCell(column, y);
         }
+        tryRepaint();
     }
 
     /**
@@ -511,6 +539,7 @@ public class SimpleGrid {
      */
     public void setGridlineColor(Color color) {
         this.panel.setBackground(color);
+        this.panel.updateCells();
         tryRepaint();
     }
 
@@ -522,11 +551,37 @@ public class SimpleGrid {
      * @since v1.2
      */
     private void ensureValueData(int value) {
-        if (!this.valueData.containsKey(value)) {
-            this.valueData.put(value, new ValueData());
+        if (getValueData(value) != null) {
+            return;
+        }
+        if (value >= 0 && value < MAX_DENSE_VALUE) {
+            if (value >= this.valueData.length) {
+                int length = this.valueData.length;
+                while (length <= value) {
+                    length *= 2;
+                }
+                this.valueData = Arrays.copyOf(this.valueData, Math.min(length, MAX_DENSE_VALUE));
+            }
+            this.valueData[value] = new ValueData();
+        } else {
+            this.sparseValueData.put(value, new ValueData());
         }
     }
 
+    /**
+     * Returns the data mapped to a value.
+     *
+     * @param value The value to get the data of.
+     * @return The data mapped to the value, or null if the value has no data mapped to it.
+     * @since v1.2.7
+     */
+    private ValueData getValueData(int value) {
+        if (value >= 0 && value < MAX_DENSE_VALUE) {
+            return value < this.valueData.length ? this.valueData[value] : null;
+        }
+        return this.sparseValueData.get(value);
+    }
+
     /**
      * Assigns a color to a given value. All cells with this value will be colored this color.
      * Repaints grid if auto repainting is enabled.
@@ -538,7 +593,8 @@ public class SimpleGrid {
      */
     public void setColor(int value, Color color) {
         ensureValueData(value);
-        this.valueData.get(value).color = color;
+        getValueData(value).color = color;
+        this.panel.updateCells();
         tryRepaint();
     }
 
@@ -557,7 +613,9 @@ public class SimpleGrid {
             throw new NullPointerException("Text color cannot be null.");
         }
         ensureValueData(value);
-        this.valueData.get(value).textColor = textColor;
+        getValueData(value).textColor = textColor;
+        getValueData(value).glyph = null;
+        this.panel.updateCells();
         tryRepaint();
     }
 
@@ -573,7 +631,9 @@ public class SimpleGrid {
      */
     public void setText(int value, char text) {
         ensureValueData(value);
-        this.valueData.get(value).text = text;
+        getValueData(value).text = text;
+        getValueData(value).glyph = null;
+        this.panel.updateCells();
         tryRepaint();
     }
 
@@ -594,6 +654,8 @@ public class SimpleGrid {
         public Color color;
         public Color textColor;
         public char text;
+        // The text drawn in the text color, made when first needed. Cleared when either changes.
+        public BufferedImage glyph;
 
         /**
          * Creates data with default color values and text of '\0'.
@@ -637,15 +699,31 @@ public class SimpleGrid {
 
     /**
      * This class paints the grid and can give information on the grid settings and mouse cursor.
+     * <p>
+     * The layers of a cell are composited when it changes rather than when it is painted, and the
+     * color and text it shows are kept for painting. Unless the grid is larger than any screen,
+     * the cell is also drawn onto an offscreen image of the whole grid right away, so painting the
+     * panel only has to copy the image. Larger grids are painted cell by cell within the clip
+     * instead, which needs no image that large.
      */
     private class GridPanel extends JPanel {
         private static final long serialVersionUID = 4114771226550991401L;
+        // Grids of more pixels than this aren't drawn onto an offscreen image. 32 MB of image is
+        // enough for a window that covers a 4K screen.
+        private static final int MAX_IMAGE_PIXELS = 1 << 23;
 
         private int width;
         private int height;
         private int cellSize;
         private int gridlineWeight;
         private Font font;
+        // The color of every cell after compositing the layers
+        private final Color[] cellColors;
+        // The value whose text every cell shows after compositing, or null if none
+        private final ValueData[] cellTexts;
+        // Holds the drawn grid, including the gridlines. Null if the grid is too large.
+        private BufferedImage image;
+        private Graphics2D imageGraphics;
 
         /**
          * Creates a new blank grid.
@@ -665,70 +743,136 @@ public class SimpleGrid {
             this.cellSize = cellSize;
             this.gridlineWeight = gridlineWeight;
             this.font = null;
+            this.cellColors = new Color[width * height];
+            this.cellTexts = new ValueData[width * height];
             setBackground(Color.BLACK);
+
+            long totalWidth = (long) width * (cellSize + gridlineWeight) + gridlineWeight;
+            long totalHeight = (long) height * (cellSize + gridlineWeight) + gridlineWeight;
+            if (totalWidth * totalHeight <= MAX_IMAGE_PIXELS) {
+                this.image = new BufferedImage((int) totalWidth, (int) totalHeight, BufferedImage.TYPE_INT_RGB);
+                this.imageGraphics = this.image.createGraphics();
+            }
         }
 
         /**
-         * Paints the entire grid. The grid cells are colored and filled according to the colors and
-         * text assigned to their current values.
-         * <p>
-         * If a cell color is "null" then only the cell's text will be drawn, unless the cell is on
-         * layer 0, in which case the cell will be painted white. If a cell's text is '\0' it will
-         * not be drawn.
+         * Composites the layers of a cell again after one of them changed, storing the color and
+         * text the cell shows, and draws the cell onto the offscreen image if there is one.
          * <p>
-         * The final appearance of each cell will be as follows:
-         * <ul>
-         * <li>The cell will be painted with the topmost non-null color</li>
-         * <li>The cell will contain the text of the topmost non '\0' character</li>
-         * <li>If a non-null color is above this character, no text will be drawn</li>
-         * </ul>
+         * The cell is painted with the topmost non-null color, or white if every layer's color is
+         * null. It shows the text of the topmost non '\0' character, unless a non-null color is
+         * above that character, in which case it shows no text.
+         *
+         * @param x The x-coordinate of the cell.
+         * @param y The y-coordinate of the cell.
+         * @since v1.2.9
+         */
+        public void updateCell(int x, int y) {
+            List<int[][]> layers = SimpleGrid.this.grids;
+
+            // Begin with colors/text being those of the layer 0 cells
+            ValueData defaultLayer = getValueData(layers.get(0)[y][x]);
+            Color topColor = defaultLayer.color == null ? Color.WHITE : defaultLayer.color;
+            ValueData topText = defaultLayer.text == '\0' ? null : defaultLayer;
+
+            // Find the topmost colors/text that should be drawn
+            for (int i = 1; i < layers.size(); i++) {
+                ValueData data = getValueData(layers.get(i)[y][x]);
+
+                if (data.color != null) {
+                    topColor = data.color;
+                    topText = null; // Clear text if a non-null color is above it
+                }
+                if (data.text != '\0') {
+                    topText = data;
+                }
+            }
+
+            int cell = y * this.width + x;
+            this.cellColors[cell] = topColor;
+            this.cellTexts[cell] = topText;
+            if (this.image != null) {
+                paintCell(this.imageGraphics, x, y);
+            }
+        }
+
+        /**
+         * Composites the layers of every cell again, after a change that may affect any cell, and
+         * draws the gridlines and every cell onto the offscreen image if there is one.
+         *
+         * @since v1.2.9
+         */
+        public void updateCells() {
+            if (this.image != null) {
+                this.imageGraphics.setColor(getBackground());
+                this.imageGraphics.fillRect(0, 0, this.image.getWidth(), this.image.getHeight());
+            }
+            for (int y = 0; y < this.height; y++) {
+                for (int x = 0; x < this.width; x++) {
+                    updateCell(x, y);
+                }
+            }
+        }
+
+        /**
+         * Paints the grid by copying the part of the offscreen image within the clip bounds of the
+         * given graphics object, or if there is no image, by painting the cells that lie within
+         * the clip bounds, so that repainting a few changed cells doesn't paint the entire grid.
          *
          * @param g The graphics object that the grid will be painted with.
          */
         @Override
         public void paintComponent(Graphics g) {
+            if (this.image != null) {
+                g.drawImage(this.image, 0, 0, null);
+                return;
+            }
             super.paintComponent(g);
 
-            // Setup the font if it has not been done
-            if (this.font == null) {
-                setupFont(g);
+            // Find the cells that overlap the area being repainted
+            int pitch = this.cellSize + this.gridlineWeight;
+            int minX = 0;
+            int minY = 0;
+            int maxX = this.width - 1;
+            int maxY = this.height - 1;
+            Rectangle clip = g.getClipBounds();
+            if (clip != null) {
+                minX = Math.max(minX, (clip.x - this.gridlineWeight) / pitch);
+                minY = Math.max(minY, (clip.y - this.gridlineWeight) / pitch);
+                maxX = Math.min(maxX, (clip.x + clip.width - 1) / pitch);
+                maxY = Math.min(maxY, (clip.y + clip.height - 1) / pitch);
             }
 
-            // Paint all cells
-            for (int x = 0; x < this.width; x++) {
-                for (int y = 0; y < this.height; y++) {
-                    // Begin with colors/text being those of the layer 0 cells
-                    ValueData defaultLayer = SimpleGrid.this.valueData.get(SimpleGrid.this.grids.get(0)[y][x]);
-                    Color topColor = defaultLayer.color == null ? Color.WHITE : defaultLayer.color;
-                    char topText = defaultLayer.text;
-                    Color topTextColor = defaultLayer.textColor;
-
-                    // Find the topmost colors/text that should be drawn
-                    for (int i = 1; i < SimpleGrid.this.grids.size(); i++) {
-                        int value = SimpleGrid.this.grids.get(i)[y][x];
-                        ValueData data = SimpleGrid.this.valueData.get(value);
-
-                        if (data.color != null) {
-                            topColor = data.color;
-                            topText = '\0'; // Clear text if a non-null color is above it
-                        }
-                        if (data.text != '\0') {
-                            topText = data.text;
-                            topTextColor = data.textColor;
-                        }
-                    }
-                    g.setColor(topColor);
-
-                    // Paint cell
-                    int cellX = x * (this.cellSize + this.gridlineWeight) + this.gridlineWeight;
-                    int cellY = y * (this.cellSize + this.gridlineWeight) + this.gridlineWeight;
-                    g.fillRect(cellX, cellY, this.cellSize, this.cellSize);
-
-                    // Draw text
-                    if (topText != '\0') {
-                        drawCenteredChar(g, x, y, topText, topTextColor);
-                    }
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    paintCell(g, x, y);
+                }
+            }
+        }
+
+        /**
+         * Paints a cell in the color and with the text it shows. A value's text is drawn into a
+         * small image the first time it is needed and copied into its cells from then on, instead
+         * of being laid out for every cell.
+         *
+         * @param g The graphics object to paint the cell with.
+         * @param x The x-coordinate of the cell.
+         * @param y The y-coordinate of the cell.
+         * @since v1.2.9
+         */
+        private void paintCell(Graphics g, int x, int y) {
+            int cell = y * this.width + x;
+            int cellX = x * (this.cellSize + this.gridlineWeight) + this.gridlineWeight;
+            int cellY = y * (this.cellSize + this.gridlineWeight) + this.gridlineWeight;
+            g.setColor(this.cellColors[cell]);
+            g.fillRect(cellX, cellY, this.cellSize, this.cellSize);
+
+            ValueData text = this.cellTexts[cell];
+            if (text != null) {
+                if (text.glyph == null) {
+                    text.glyph = createGlyph(text.text, text.textColor);
                 }
+                g.drawImage(text.glyph, cellX, cellY, null);
             }
         }
 
@@ -751,26 +895,30 @@ public class SimpleGrid {
         }
 
         /**
-         * Draws a character in the center of a cell.
+         * Draws a character centered on a transparent image the size of one cell, so that it can
+         * be copied into cells instead of being laid out again each time.
          *
-         * @param g         The graphics object that the character will be drawn with.
-         * @param x         The x-coordinate of the cell to draw in.
-         * @param y         The y-coordinate of the cell to drawn in.
-         * @param c         The character to draw in the cell.
+         * @param c         The character to draw.
          * @param textColor The color of the character to draw.
-         * @since v1.2
+         * @return The image of the character.
+         * @since v1.2.8
          */
-        public void drawCenteredChar(Graphics g, int x, int y, char c, Color textColor) {
+        private BufferedImage createGlyph(char c, Color textColor) {
+            BufferedImage glyph = new BufferedImage(this.cellSize, this.cellSize, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = glyph.createGraphics();
+            if (this.font == null) {
+                setupFont(g);
+            }
             g.setColor(textColor);
             g.setFont(this.font);
 
-            int xCoord = x * (this.cellSize + this.gridlineWeight) + this.gridlineWeight;
-            int yCoord = y * (this.cellSize + this.gridlineWeight) + this.gridlineWeight;
             FontMetrics metrics = g.getFontMetrics(this.font);
-            int xPos = xCoord + (this.cellSize - metrics.stringWidth("" + c)) / 2;
-            int yPos = yCoord + ((this.cellSize - metrics.getHeight()) / 2) + metrics.getAscent();
-
-            g.drawString("" + c, xPos, yPos);
+            String text = String.valueOf(c);
+            int xPos = (this.cellSize - metrics.stringWidth(text)) / 2;
+            int yPos = ((this.cellSize - metrics.getHeight()) / 2) + metrics.getAscent();
+            g.drawString(text, xPos, yPos);
+            g.dispose();
+            return glyph;
         }
 
         /**
@@ -0,0 +1,138 @@
+package snakeai;
+
+import java.util.Arrays;
+
+/**
+ * The cells the snake occupies, kept in a ring buffer of cell indices.
+ * <p>
+ * Every part added is given the next number in a sequence that is never reset, and each cell
+ * records the sequence number of the last part that entered it. Parts between the tail's and the
+ * head's sequence numbers are part of the snake, which makes membership tests and positions
+ * constant time and lets clear() run in constant time too.
+ */
+public class SnakeBody implements BodyView {
+    private final int[] parts;
+    private final int[] stamps; // Sequence number of the last part to enter each cell
+    private int tailSequence;
+    private int headSequence; // Sequence number of the head, or tailSequence - 1 when empty
+
+    /**
+     * Creates an empty body for a play area with the given number of cells.
+     *
+     * @param capacity The number of cells in the play area.
+     */
+    public SnakeBody(int capacity) {
+        this.parts = new int[capacity];
+        this.stamps = new int[capacity];
+        Arrays.fill(this.stamps, -1);
+        this.tailSequence = 0;
+        this.headSequence = -1;
+    }
+
+    /**
+     * Removes every part of the snake.
+     */
+    public void clear() {
+        if (this.headSequence == Integer.MAX_VALUE) {
+            rebase();
+        }
+        this.tailSequence = this.headSequence + 1;
+    }
+
+    /**
+     * Adds a new head to the snake.
+     *
+     * @param cell The index of the new head's cell. Must not already be part of the snake.
+     */
+    public void addHead(int cell) {
+        if (this.headSequence == Integer.MAX_VALUE) {
+            rebase();
+        }
+        this.headSequence++;
+        this.parts[slot(this.headSequence)] = cell;
+        this.stamps[cell] = this.headSequence;
+    }
+
+    /**
+     * Removes the tail of the snake.
+     *
+     * @return The index of the cell the tail was in.
+     * @throws IllegalStateException If the snake is empty.
+     */
+    public int removeTail() {
+        if (length() == 0) {
+            throw new IllegalStateException("The snake has no parts.");
+        }
+        int tail = this.parts[slot(this.tailSequence)];
+        this.tailSequence++;
+        return tail;
+    }
+
+    @Override
+    public int length() {
+        return this.headSequence - this.tailSequence + 1;
+    }
+
+    @Override
+    public int head() {
+        return get(length() - 1);
+    }
+
+    @Override
+    public int tail() {
+        return get(0);
+    }
+
+    @Override
+    public int get(int i) {
+        if (i < 0 || i >= length()) {
+            throw new IndexOutOfBoundsException("No part at position " + i);
+        }
+        return this.parts[slot(this.tailSequence + i)];
+    }
+
+    @Override
+    public int getFromHead(int i) {
+        return get(length() - 1 - i);
+    }
+
+    @Override
+    public boolean contains(int cell) {
+        return this.stamps[cell] >= this.tailSequence;
+    }
+
+    @Override
+    public int indexOf(int cell) {
+        int stamp = this.stamps[cell];
+        return stamp >= this.tailSequence ? stamp - this.tailSequence : -1;
+    }
+
+    @Override
+    public int movesUntilVacated(int cell) {
+        return indexOf(cell) + 1;
+    }
+
+    /**
+     * Renumbers the parts so that the tail's sequence number is close to zero, before the sequence
+     * overflows. Sequence numbers only move by a multiple of the capacity so that every part stays
+     * in the same slot of the ring buffer.
+     */
+    private void rebase() {
+        int shift = this.tailSequence - this.tailSequence % this.parts.length;
+        for (int i = 0; i < this.stamps.length; i++) {
+            this.stamps[i] = this.stamps[i] >= this.tailSequence ? this.stamps[i] - shift : -1;
+        }
+        this.tailSequence -= shift;
+        this.headSequence -= shift;
+    }
+
+    /**
+     * Returns the position in the ring buffer of the part with the given sequence number.
+     *
+     * @param sequence The sequence number of the part.
+     * @return The position of the part in the ring buffer.
+     */
+    private int slot(int sequence) {
+        return sequence % this.parts.length;
+    }
+}
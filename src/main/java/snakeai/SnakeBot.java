@@ -0,0 +1,53 @@
+package snakeai;
+
+import java.awt.Point;
+
+/**
+ * The interface for a bot.
+ */
+public interface SnakeBot {
+    /**
+     * Initializes this bot with the game it will play and the snake's starting location.
+     *
+     * @param game  A view of the game the bot will play, used to query the play area.
+     * @param start The starting coordinates of the snake in the play area.
+     */
+    void initialize(GameView game, Point start);
+
+    /**
+     * Seeds the random number generator the bot uses, so that its games can be replayed. Called
+     * by the game before every call to initialize. Bots that make no random choices can ignore it,
+     * which is the default.
+     *
+     * @param seed The seed of the bot's random number generator.
+     */
+    default void setSeed(long seed) {
+    }
+
+    /**
+     * Returns the direction the snake will move next.
+     *
+     * @return The direction of this snake's next move.
+     */
+    Direction getMove();
+
+    /**
+     * Returns the direction the snake will move next, trying to return before the given deadline.
+     * Bots that can cut their work short return the best move they found so far once the deadline
+     * passes, or else a move that doesn't collide with anything. By default the deadline is
+     * ignored.
+     *
+     * @param deadline The value of System.nanoTime() by which the move should be returned.
+     * @return The direction of this snake's next move.
+     */
+    default Direction getMove(long deadline) {
+        return getMove();
+    }
+
+    /**
+     * Returns the name of this bot.
+     *
+     * @return The name of this bot.
+     */
+    String toString();
+}
@@ -0,0 +1,301 @@
+package snakeai;
+
+import java.awt.Point;
+import java.util.Random;
+
+/**
+ * Strategy: Attempt to take the shortest path to the food such that at least 1 cell of separation
+ * is maintained between any parts of the snake and the grid boundaries. If no such path exists,
+ * then attempt to take the shortest path to the food without the spacing restrictions. If this path
+ * doesn't exist, make random moves that don'd collide with itself or go out or bounds.
+ * <p>
+ * In the INCREMENTAL search mode, both paths are repaired after every move instead of being
+ * searched for from scratch.
+ * <p>
+ * Given a deadline, a search gives up once it passes and the snake moves towards the closest cell
+ * to the food found so far, or randomly if the search hadn't left the head yet. Repairing the
+ * paths in the INCREMENTAL search mode is not cut short.
+ * <p>
+ * When avoiding traps, a move that would leave the snake fewer reachable cells than it is long is
+ * replaced by the safe move with the most room. Spacing keeps the snake out of most pockets, but
+ * not once it is long enough to have to drop the spacing.
+ */
+public class SpacerBot implements SearchingBot {
+    private final Pathfinder.Mode searchMode;
+    private final boolean avoidTraps;
+    private GameView game;
+    private BodyView body;
+    private Pathfinder pathfinder;
+    private FloodFill floodFill; // Only used when avoiding traps
+    // Only used in the INCREMENTAL search mode, one for each traversal
+    private IncrementalPathfinder spacedReplanner;
+    private IncrementalPathfinder safeReplanner;
+    private Pathfinder.Traversal spacedCells;
+    private Pathfinder.Traversal safeCells;
+    // Cells of the head, neck and tail at the last move, as indices, or -1 before the first move
+    private int lastHead;
+    private int lastNeck;
+    private int lastTail;
+    private long expansions;
+    private long fallbacks;
+    // Whether the current move has a deadline, and the System.nanoTime() value of the deadline
+    private boolean timed;
+    private long deadline;
+    private final Random rand = new Random();
+
+    /**
+     * Creates a new bot whose searches use a binary heap.
+     */
+    public SpacerBot() {
+        this(Pathfinder.Mode.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a new bot whose searches use the given data structure for their open set.
+     *
+     * @param searchMode The data structure used by the bot's searches.
+     */
+    public SpacerBot(Pathfinder.Mode searchMode) {
+        this(searchMode, false);
+    }
+
+    /**
+     * Creates a new bot whose searches use the given data structure for their open set, and which
+     * optionally checks every move with a flood fill.
+     *
+     * @param searchMode The data structure used by the bot's searches.
+     * @param avoidTraps Whether to replace moves that leave the snake too little room to survive.
+     */
+    public SpacerBot(Pathfinder.Mode searchMode, boolean avoidTraps) {
+        this.searchMode = searchMode;
+        this.avoidTraps = avoidTraps;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.rand.setSeed(seed);
+    }
+
+    @Override
+    public void initialize(GameView game, Point start) {
+        this.game = game;
+        this.body = game.getBody();
+        this.lastHead = -1;
+        this.lastNeck = -1;
+        this.lastTail = -1;
+        this.expansions = 0;
+        this.fallbacks = 0;
+
+        int width = game.getGridWidth();
+        int height = game.getGridHeight();
+        if (this.pathfinder == null || !this.pathfinder.fits(width, height, this.searchMode)) {
+            this.pathfinder = new Pathfinder(width, height, this.searchMode);
+        }
+        if (this.avoidTraps && (this.floodFill == null || !this.floodFill.fits(width, height))) {
+            this.floodFill = new FloodFill(width, height);
+        }
+        if (this.searchMode == Pathfinder.Mode.INCREMENTAL) {
+            if (this.spacedReplanner == null || !this.spacedReplanner.fits(width, height)) {
+                this.spacedReplanner = new IncrementalPathfinder(width, height);
+                this.safeReplanner = new IncrementalPathfinder(width, height);
+            }
+            this.spacedReplanner.reset();
+            this.safeReplanner.reset();
+        }
+        this.spacedCells = new Pathfinder.Traversal() {
+            @Override
+            public boolean canEnter(int cell) {
+                return isSafe(cell, true);
+            }
+        };
+        this.safeCells = new Pathfinder.Traversal() {
+            @Override
+            public boolean canEnter(int cell) {
+                return isSafe(cell, false);
+            }
+        };
+    }
+
+    @Override
+    public Direction getMove() {
+        this.timed = false;
+        return nextMove();
+    }
+
+    @Override
+    public Direction getMove(long deadline) {
+        this.timed = true;
+        this.deadline = Pathfinder.searchDeadline(deadline);
+        return nextMove();
+    }
+
+    /**
+     * Returns the direction the snake will move next, giving up on the searches at the deadline
+     * if this move has one.
+     *
+     * @return The direction of this snake's next move.
+     */
+    private Direction nextMove() {
+        if (this.spacedReplanner != null) {
+            reportChanges();
+        }
+        Direction nextDirection = pathfindTo(this.game.getFoodPos(), true);
+        boolean fellBack = nextDirection == null || this.pathfinder.isTimedOut();
+        if (nextDirection == null && !this.pathfinder.isTimedOut()) {
+            nextDirection = pathfindTo(this.game.getFoodPos(), false);
+        }
+        if (nextDirection == null) {
+            nextDirection = getRandomMove();
+        }
+        if (this.floodFill != null && !this.pathfinder.isTimedOut()) {
+            Direction safer = this.floodFill.avoidTrap(this.game, nextDirection);
+            fellBack |= safer != nextDirection;
+            nextDirection = safer;
+        }
+        if (fellBack) {
+            this.fallbacks++;
+        }
+
+        return nextDirection;
+    }
+
+    /**
+     * Calculates the shortest path from the snake's head to the given target point and returns the
+     * direction to move in order to take that path.
+     *
+     * @param target     The target location to find a path to.
+     * @param leaveSpace Whether to place a spacing restriction on the path found that requires at
+     *                   least one cell of separation to be kept between snake parts and the grid
+     *                   boundaries.
+     * @return The direction to move in order to take the shortest path from the snake's head to the
+     * given target point.
+     */
+    private Direction pathfindTo(Point target, boolean leaveSpace) {
+        int start = this.body.head();
+        int end = this.pathfinder.cell(target.x, target.y);
+        Pathfinder.Traversal traversal = leaveSpace ? this.spacedCells : this.safeCells;
+        if (this.spacedReplanner != null) {
+            IncrementalPathfinder replanner = leaveSpace ? this.spacedReplanner : this.safeReplanner;
+            Direction nextDirection = replanner.findPath(start, end, traversal);
+            this.expansions += replanner.getExpansions();
+            return nextDirection;
+        }
+        Direction nextDirection = this.timed
+                ? this.pathfinder.findPath(start, end, traversal, this.deadline)
+                : this.pathfinder.findPath(start, end, traversal);
+        this.expansions += this.pathfinder.getExpansions();
+        return nextDirection;
+    }
+
+    /**
+     * Tells the incremental searches which cells may have changed since the last move. Whether a
+     * cell leaves space depends on the cells around it and on where the head and neck are, so
+     * every cell around the new head and the old head, neck and tail is reported.
+     */
+    private void reportChanges() {
+        int head = this.body.head();
+        reportAround(head);
+        if (this.lastHead != -1) {
+            reportAround(this.lastHead);
+            reportAround(this.lastNeck);
+            reportAround(this.lastTail);
+        }
+        this.lastHead = head;
+        this.lastNeck = this.body.length() >= 2 ? this.body.getFromHead(1) : head;
+        this.lastTail = this.body.tail();
+    }
+
+    /**
+     * Reports the given cell and the eight cells around it to both incremental searches.
+     *
+     * @param cell The index of the cell.
+     */
+    private void reportAround(int cell) {
+        int width = this.game.getGridWidth();
+        int cx = cell % width;
+        int cy = cell / width;
+        for (int x = cx - 1; x <= cx + 1; x++) {
+            for (int y = cy - 1; y <= cy + 1; y++) {
+                this.spacedReplanner.cellChanged(x, y);
+                this.safeReplanner.cellChanged(x, y);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given cell is safe to move to given the spacing restrictions of having
+     * at least one cell of space between other snake parts and the grid boundaries.
+     *
+     * @param cell       The index of the cell to check for safety.
+     * @param leaveSpace Whether the given cell is required to have at least one cell of space
+     *                   between other snake parts and the grid boundaries.
+     * @return True if the given cell is safe to move to and is safe to move to under the given
+     * spacing restriction, false otherwise.
+     */
+    private boolean isSafe(int cell, boolean leaveSpace) {
+        // The board's border lets the cell and its neighbors be checked without bounds checks
+        BoardView board = this.game.getBoard();
+        NeighborTable table = this.game.getNeighbors();
+        int index = board.index(table.getX(cell), table.getY(cell));
+        if (board.isOccupied(index)) {
+            return false;
+        }
+        if (!leaveSpace) {
+            return true;
+        }
+
+        int head1 = this.body.head();
+        int head2 = this.body.length() >= 2 ? this.body.getFromHead(1) : head1;
+        int head1Index = board.index(table.getX(head1), table.getY(head1));
+        int head2Index = board.index(table.getX(head2), table.getY(head2));
+
+        int stride = board.getStride();
+        for (int x = -1; x <= 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                int neighbor = index + y * stride + x;
+
+                if (neighbor == index || neighbor == head1Index || neighbor == head2Index) {
+                    continue;
+                }
+
+                if (board.isOccupied(neighbor)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns a random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds.
+     *
+     * @return A random movement direction that will not cause this snake to collide with itself or
+     * go out of bounds. If no such direction exists, returns UP.
+     */
+    private Direction getRandomMove() {
+        for (Direction d : Direction.randomOrder(this.rand)) {
+            if (this.game.isSafe(this.game.neighbor(this.body.head(), d))) {
+                return d;
+            }
+        }
+
+        return Direction.UP;
+    }
+
+    @Override
+    public long getExpansions() {
+        return this.expansions;
+    }
+
+    @Override
+    public long getFallbacks() {
+        return this.fallbacks;
+    }
+
+    @Override
+    public String toString() {
+        return "SpacerBot";
+    }
+}
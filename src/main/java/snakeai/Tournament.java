@@ -0,0 +1,444 @@
+package snakeai;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many headless games with every bot and reports statistics on how well each one performs.
+ * <p>
+ * Every game is played on its own Game with its own bot instance, so games share no mutable state
+ * and are spread over all cores by a fork-join pool. Game i of every bot uses the same seed, so
+ * all bots start from the same snake positions.
+ * <p>
+ * For bots that search, the average number of nodes expanded per move is reported too, which shows
+ * how much work the INCREMENTAL search mode saves over searching from scratch. In that mode, the
+ * bots that repair their searches play the same games again searching from scratch with a binary
+ * heap, and the expansions per move of both are reported. These games are neither measured nor
+ * recorded, and they may play out differently, since the two searches break ties between equally
+ * short paths differently. For MctsBot, the
+ * number of playouts finished per second of CPU time, so per core, is reported on a line of its
+ * own, along with the number of threads each game searched on.
+ * <p>
+ * If a metrics file is configured, every move is measured with MoveMetrics, and the move time
+ * percentiles, node expansions, fallbacks and allocations of each bot are written to the file as
+ * CSV or JSON once all bots have played.
+ * <p>
+ * If a record directory is configured, the log of every game is saved to it as
+ * {@code <bot>-<game>.snakelog}, so that any game can be replayed with Replay.
+ * <p>
+ * If a move budget is configured, bots are asked for their moves with a deadline, and the
+ * percentage of moves returned late is reported.
+ * <p>
+ * Takes the same settings as Main; see Config.
+ */
+public class Tournament {
+    /**
+     * Default number of games played per bot.
+     */
+    public static final int DEFAULT_GAMES = 1000;
+
+    // Columns of the metrics file, in order
+    private static final String[] METRICS_COLUMNS = {"bot", "games", "moves", "mean_ns", "p50_ns", "p90_ns",
+            "p99_ns", "p99.9_ns", "max_ns", "expansions_per_move", "fallbacks", "fallback_rate", "bytes_per_move",
+            "deadline_miss_rate", "rollouts_per_core_second"};
+
+    private final Config config;
+    private final ForkJoinPool pool;
+    private final int searchThreads; // Threads each MctsBot searches on
+
+    /**
+     * Creates a new tournament.
+     *
+     * @param config The settings of the tournament, including the size of the play area, the
+     *               number of games per bot and the number of threads to play them on.
+     */
+    public Tournament(Config config) {
+        this.config = config;
+        this.pool = new ForkJoinPool(config.getThreads());
+        // Games already run in parallel, so each game's searches only get its share of the cores
+        int parallelGames = Math.min(config.getThreads(), config.getGames());
+        this.searchThreads = config.getSearchThreads() > 0 ? config.getSearchThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / parallelGames);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        run(Config.parse(args));
+    }
+
+    /**
+     * Plays a tournament with the given settings and prints the results. Only the configured bot
+     * plays if one is configured, otherwise every bot plays.
+     *
+     * @param config The settings of the tournament.
+     * @throws IOException          If the metrics file can't be written.
+     * @throws InterruptedException If interrupted while waiting for the games to finish.
+     * @throws ExecutionException   If a game threw an exception.
+     */
+    public static void run(Config config) throws IOException, InterruptedException, ExecutionException {
+        Tournament tournament = new Tournament(config);
+        System.out.println(config.getGames() + " games per bot on a " + config.getWidth() + "x"
+                + config.getHeight() + " grid using " + config.getThreads() + " threads (seed "
+                + config.getSeed() + ", " + config.getSearchMode() + ")");
+        System.out.println(Results.HEADER);
+        String[] names = config.getBot() == null ? Bots.NAMES : new String[]{config.getBot()};
+        List<Results> allResults = new ArrayList<>();
+        for (String name : names) {
+            Results results = tournament.play(name);
+            System.out.println(results);
+            if (config.getSearchMode() == Pathfinder.Mode.INCREMENTAL
+                    && Arrays.asList(Bots.INCREMENTAL_NAMES).contains(name)) {
+                Results scratch = tournament.play(name, Pathfinder.Mode.BINARY_HEAP, false);
+                System.out.printf(Locale.ROOT, "%-14s %.1f expansions/move searching from scratch, %.1fx as many%n",
+                        "", scratch.expansionsPerMove, scratch.expansionsPerMove / results.expansionsPerMove);
+            }
+            if (!Double.isNaN(results.rolloutsPerSecond)) {
+                System.out.printf(Locale.ROOT, "%-14s %.0f playouts/s per core, %d search threads per game%n", "",
+                        results.rolloutsPerSecond, tournament.searchThreads);
+            }
+            allResults.add(results);
+        }
+        tournament.shutdown();
+
+        if (config.getMetricsFile() != null) {
+            writeMetrics(allResults, config.getMetricsFile());
+            System.out.println("Move metrics written to " + config.getMetricsFile());
+        }
+    }
+
+    /**
+     * Writes the move metrics of every bot to a file, as JSON if the file name ends in ".json" and
+     * as CSV otherwise. Times are in nanoseconds. Values that weren't measured are left empty in
+     * CSV and are null in JSON.
+     *
+     * @param allResults The results of the bots, which must have been measured.
+     * @param fileName   The name of the file to write.
+     * @throws IOException If the file can't be written.
+     */
+    public static void writeMetrics(List<Results> allResults, String fileName) throws IOException {
+        boolean json = fileName.toLowerCase().endsWith(".json");
+        try (PrintWriter out = new PrintWriter(new FileWriter(fileName))) {
+            if (json) {
+                out.println("[");
+            } else {
+                out.println(String.join(",", METRICS_COLUMNS));
+            }
+            for (int i = 0; i < allResults.size(); i++) {
+                Results results = allResults.get(i);
+                MoveMetrics metrics = results.metrics;
+                LatencyHistogram latency = metrics.getLatency();
+                Object[] values = {results.botName, results.games, metrics.getMoves(),
+                        latency.getMean(), latency.getPercentile(50), latency.getPercentile(90),
+                        latency.getPercentile(99), latency.getPercentile(99.9), latency.getMax(),
+                        metrics.getExpansionsPerMove(), metrics.getFallbacks(), metrics.getFallbackRate(),
+                        metrics.getBytesPerMove(), results.deadlineMissRate, results.rolloutsPerSecond};
+
+                StringBuilder line = new StringBuilder(json ? "  {" : "");
+                for (int j = 0; j < values.length; j++) {
+                    if (j > 0) {
+                        line.append(json ? ", " : ",");
+                    }
+                    if (json) {
+                        line.append('"').append(METRICS_COLUMNS[j]).append("\": ");
+                    }
+                    line.append(formatMetric(values[j], json));
+                }
+                if (json) {
+                    line.append(i + 1 < allResults.size() ? "}," : "}");
+                }
+                out.println(line);
+            }
+            if (json) {
+                out.println("]");
+            }
+        }
+    }
+
+    /**
+     * Formats a single value of the metrics file.
+     *
+     * @param value The value. Bot names are strings, and NaN and -1 mean the value wasn't
+     *              measured.
+     * @param json  Whether to format the value for JSON rather than CSV.
+     * @return The formatted value.
+     */
+    private static String formatMetric(Object value, boolean json) {
+        if (value instanceof String) {
+            return json ? "\"" + value + "\"" : (String) value;
+        }
+        boolean missing = value instanceof Double ? ((Double) value).isNaN() : ((Number) value).longValue() == -1;
+        if (missing) {
+            return json ? "null" : "";
+        }
+        return value instanceof Double ? String.format(Locale.ROOT, "%.3f", (Double) value) : value.toString();
+    }
+
+    /**
+     * Plays all games of the tournament with the given bot.
+     *
+     * @param botName The name of the bot to play with.
+     * @return The statistics of the games played.
+     * @throws InterruptedException If interrupted while waiting for the games to finish.
+     * @throws ExecutionException   If a game threw an exception.
+     */
+    public Results play(String botName) throws InterruptedException, ExecutionException {
+        return play(botName, this.config.getSearchMode(), true);
+    }
+
+    /**
+     * Plays all games of the tournament with the given bot and search mode.
+     *
+     * @param botName    The name of the bot to play with.
+     * @param searchMode The data structure used by the bot's searches.
+     * @param measured   Whether the games are measured and recorded as configured.
+     * @return The statistics of the games played.
+     * @throws InterruptedException If interrupted while waiting for the games to finish.
+     * @throws ExecutionException   If a game threw an exception.
+     */
+    private Results play(final String botName, final Pathfinder.Mode searchMode, final boolean measured)
+            throws InterruptedException, ExecutionException {
+        List<Callable<GameResult>> tasks = new ArrayList<>();
+        for (int i = 0; i < this.config.getGames(); i++) {
+            final int game = i;
+            tasks.add(new Callable<GameResult>() {
+                @Override
+                public GameResult call() throws IOException {
+                    Config config = Tournament.this.config;
+                    SnakeBot bot = Bots.create(botName, searchMode, config.isAvoidingTraps(),
+                            Tournament.this.searchThreads);
+                    return playGame(bot, game, measured);
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        List<Future<GameResult>> futures = this.pool.invokeAll(tasks);
+        List<GameResult> results = new ArrayList<>();
+        for (Future<GameResult> future : futures) {
+            results.add(future.get());
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Results(botName, results, elapsed, this.config.getMoveBudget() > 0);
+    }
+
+    /**
+     * Stops the threads of this tournament once all running games are finished.
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Returns the seed of the given game. Adjacent game indices are spread apart so that the seeds
+     * given to Random are not correlated.
+     *
+     * @param game The index of the game.
+     * @return The seed of the game.
+     */
+    private long gameSeed(int game) {
+        return this.config.getSeed() ^ (game * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Plays a single game until the snake dies, wins, stalls, or reaches the move limit.
+     *
+     * @param bot       The bot to play with.
+     * @param gameIndex The index of the game.
+     * @param measured  Whether the game is measured and recorded as configured.
+     * @return The outcome of the game.
+     * @throws IOException If the game is recorded and its log can't be saved.
+     */
+    private GameResult playGame(SnakeBot bot, int gameIndex, boolean measured) throws IOException {
+        long start = System.nanoTime();
+        Game game = new Game(this.config.getWidth(), this.config.getHeight(), new Random(gameSeed(gameIndex)));
+        if (measured && this.config.getMetricsFile() != null) {
+            game.setMetrics(new MoveMetrics());
+        }
+        GameRecorder recorder = null;
+        if (measured && this.config.getRecordDirectory() != null) {
+            recorder = new GameRecorder();
+            game.addListener(recorder);
+        }
+        game.setMoveBudget(this.config.getMoveBudget() * 1000);
+        game.reset(bot);
+
+        // A game is stopped if the snake goes twice the number of cells without eating. A bot
+        // that follows its tail can reach any food there is in fewer moves, and bots that stall
+        // forever would otherwise never finish, or spend most of the run on moves that go nowhere.
+        long stallLimit = 2L * this.config.getWidth() * this.config.getHeight();
+        long maxMoves = this.config.getMaxMoves();
+        int lastFoodEaten = 0;
+        long lastFoodMove = 0;
+        while (game.getMoves() < maxMoves && game.step()) {
+            if (game.getFoodEaten() != lastFoodEaten) {
+                lastFoodEaten = game.getFoodEaten();
+                lastFoodMove = game.getMoves();
+            } else if (game.getMoves() - lastFoodMove > stallLimit) {
+                break;
+            }
+        }
+        if (recorder != null) {
+            File log = new File(this.config.getRecordDirectory(), bot + "-" + gameIndex + GameLog.EXTENSION);
+            recorder.save(log.getPath());
+        }
+        long expansions = bot instanceof SearchingBot ? ((SearchingBot) bot).getExpansions() : -1;
+        long rollouts = bot instanceof MctsBot ? ((MctsBot) bot).getRollouts() : -1;
+        long rolloutNanos = bot instanceof MctsBot ? ((MctsBot) bot).getRolloutNanos() : -1;
+        return new GameResult(game.getFoodEaten(), game.getMoves(), game.isWon(), !game.isOver(),
+                System.nanoTime() - start, expansions, rollouts, rolloutNanos, game.getDeadlineMisses(),
+                game.getMetrics());
+    }
+
+    /**
+     * The outcome of a single game.
+     */
+    private static class GameResult {
+        public final int score;
+        public final int moves;
+        public final boolean won;
+        public final boolean stalled;
+        public final long nanos;
+        public final long expansions; // -1 if the bot doesn't search
+        // Playouts and the CPU time all threads spent on them, -1 if the bot doesn't play out moves
+        public final long rollouts;
+        public final long rolloutNanos;
+        public final int deadlineMisses;
+        public final MoveMetrics metrics; // Null if moves weren't measured
+
+        public GameResult(int score, int moves, boolean won, boolean stalled, long nanos, long expansions,
+                          long rollouts, long rolloutNanos, int deadlineMisses, MoveMetrics metrics) {
+            this.score = score;
+            this.moves = moves;
+            this.won = won;
+            this.stalled = stalled;
+            this.nanos = nanos;
+            this.expansions = expansions;
+            this.rollouts = rollouts;
+            this.rolloutNanos = rolloutNanos;
+            this.deadlineMisses = deadlineMisses;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * Statistics of all games a bot played in a tournament.
+     */
+    public static class Results {
+        public static final String HEADER = String.format(Locale.ROOT,
+                "%-14s %7s %8s %7s %7s %7s %7s %8s %7s %7s %10s %9s %9s %7s", "Bot", "Games", "Mean", "p10", "Median", "p90", "p99", "Ratio", "Win%", "Stall%", "Games/s", "ns/move",
+                "Exp/move", "Late%");
+
+        public final String botName;
+        public final int games;
+        public final double meanScore;
+        public final int medianScore;
+        public final int p10Score;
+        public final int p90Score;
+        public final int p99Score;
+        public final double movesPerFood;
+        public final double winRate;
+        public final double stallRate;
+        public final double gamesPerSecond;
+        public final double nanosPerMove;
+        public final double expansionsPerMove;
+        public final double deadlineMissRate; // NaN if there was no move budget
+        public final double rolloutsPerSecond; // Per core, NaN if the bot doesn't play out moves
+        public final MoveMetrics metrics; // Null if moves weren't measured
+
+        private Results(String botName, List<GameResult> results, long elapsedNanos, boolean budgeted) {
+            this.botName = botName;
+            this.games = results.size();
+
+            int[] scores = new int[this.games];
+            long totalScore = 0;
+            long totalMoves = 0;
+            int wins = 0;
+            int stalls = 0;
+            long totalNanos = 0;
+            long totalExpansions = 0;
+            long deadlineMisses = 0;
+            long totalRollouts = 0;
+            long totalRolloutNanos = 0;
+            boolean searched = false;
+            MoveMetrics allMetrics = null;
+            for (int i = 0; i < this.games; i++) {
+                GameResult result = results.get(i);
+                scores[i] = result.score;
+                totalScore += result.score;
+                totalMoves += result.moves;
+                wins += result.won ? 1 : 0;
+                stalls += result.stalled ? 1 : 0;
+                totalNanos += result.nanos;
+                deadlineMisses += result.deadlineMisses;
+                if (result.expansions != -1) {
+                    totalExpansions += result.expansions;
+                    searched = true;
+                }
+                if (result.rollouts != -1) {
+                    totalRollouts += result.rollouts;
+                    totalRolloutNanos += result.rolloutNanos;
+                }
+                if (result.metrics != null) {
+                    if (allMetrics == null) {
+                        allMetrics = new MoveMetrics();
+                    }
+                    allMetrics.add(result.metrics);
+                }
+            }
+            Arrays.sort(scores);
+
+            this.meanScore = (double) totalScore / this.games;
+            this.medianScore = percentile(scores, 50);
+            this.p10Score = percentile(scores, 10);
+            this.p90Score = percentile(scores, 90);
+            this.p99Score = percentile(scores, 99);
+            this.movesPerFood = totalScore == 0 ? Double.NaN : (double) totalMoves / totalScore;
+            this.winRate = (double) wins / this.games;
+            this.stallRate = (double) stalls / this.games;
+            this.gamesPerSecond = this.games / (elapsedNanos / 1e9);
+            this.nanosPerMove = totalMoves == 0 ? Double.NaN : (double) totalNanos / totalMoves;
+            this.expansionsPerMove = !searched || totalMoves == 0 ? Double.NaN : (double) totalExpansions / totalMoves;
+            this.deadlineMissRate = !budgeted || totalMoves == 0 ? Double.NaN : (double) deadlineMisses / totalMoves;
+            this.rolloutsPerSecond = totalRolloutNanos == 0 ? Double.NaN : totalRollouts * 1e9 / totalRolloutNanos;
+            this.metrics = allMetrics;
+        }
+
+        /**
+         * Returns the given percentile of a sorted array using the nearest-rank method.
+         *
+         * @param sorted     The sorted values.
+         * @param percentile The percentile to get, between 0 and 100.
+         * @return The value at the given percentile.
+         */
+        private static int percentile(int[] sorted, int percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        @Override
+        public String toString() {
+            // Bots that don't search expand nothing, and without a move budget no move can be late,
+            // so those columns are left blank
+            String expansions = Double.isNaN(this.expansionsPerMove) ? "-"
+                    : String.format(Locale.ROOT, "%.1f", this.expansionsPerMove);
+            String late = Double.isNaN(this.deadlineMissRate) ? "-"
+                    : String.format(Locale.ROOT, "%.2f%%", 100 * this.deadlineMissRate);
+            return String.format(Locale.ROOT,
+                    "%-14s %7d %8.2f %7d %7d %7d %7d %8.2f %6.1f%% %6.1f%% %10.1f %9.0f %9s %7s",
+                    this.botName, this.games, this.meanScore, this.p10Score, this.medianScore,
+                    this.p90Score, this.p99Score, this.movesPerFood, 100 * this.winRate,
+                    100 * this.stallRate, this.gamesPerSecond, this.nanosPerMove, expansions, late);
+        }
+    }
+}
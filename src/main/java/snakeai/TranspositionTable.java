@@ -0,0 +1,189 @@
+package snakeai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size table of values computed for positions, keyed by their Zobrist hash, so that a
+ * bot that reaches the same position again, on a later move or on another thread, can look up
+ * what it found instead of computing it again.
+ * <p>
+ * Each value is stored with a depth, a measure of how much work went into it, and the generation
+ * it was stored in. A lookup can ask for a minimum depth, and when two positions compete for the
+ * same slot, the replacement policy decides which one stays. A caller that keeps a table across
+ * moves can call nextGeneration when it moves on, so that under the depth-preferring policies the
+ * deep entries of past moves give way to new ones; ALWAYS ignores generations.
+ * <p>
+ * The table is lock-free. Every slot is two longs, the entry and the entry xor'ed with the hash,
+ * written and read without locking. If two threads write the same slot at once, or a read
+ * overlaps a write, the two halves may come from different entries, but then they no longer xor
+ * to the hash being looked up and the lookup simply misses. So a lookup never returns a value
+ * stored for another position, unless their hashes are equal. Nothing is allocated after
+ * construction.
+ */
+public class TranspositionTable {
+    /**
+     * How an entry that doesn't fit decides which entry to evict.
+     */
+    public enum Replacement {
+        /**
+         * Every position has one slot, and the newest entry always replaces the old one.
+         */
+        ALWAYS,
+        /**
+         * Every position has one slot, and an entry only replaces one of the same generation if
+         * it is at least as deep.
+         */
+        DEPTH_PREFERRED,
+        /**
+         * Every position has a bucket of two slots: a depth-preferred one that keeps the deepest
+         * entry of the generation, and one that always takes the newest entry that didn't make it
+         * into the first.
+         */
+        TWO_TIER
+    }
+
+    private static final int MAX_DEPTH = 0xFFFF;
+
+    private final Replacement replacement;
+    private final AtomicLongArray slots; // Pairs of the entry xor'ed with its hash and the entry
+    private final int mask;
+    private volatile int generation = 1; // Never 0, so that no entry is 0 like an empty slot
+
+    /**
+     * Creates an empty table.
+     *
+     * @param capacity    The number of slots, rounded up to a power of two of at least 2.
+     * @param replacement The policy deciding which entry to keep when slots are full.
+     * @throws IllegalArgumentException If the capacity is not positive or too large.
+     */
+    public TranspositionTable(int capacity, Replacement replacement) {
+        if (capacity <= 0 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("The capacity must be positive and at most 2^29.");
+        }
+        int slotCount = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.replacement = replacement;
+        this.slots = new AtomicLongArray(2 * slotCount);
+        this.mask = replacement == Replacement.TWO_TIER ? slotCount - 2 : slotCount - 1;
+    }
+
+    /**
+     * Looks up the value stored for a position.
+     *
+     * @param hash     The hash of the position.
+     * @param minDepth The least depth a value must have been stored with to be returned.
+     * @param missing  The value to return if no deep enough value is stored.
+     * @return The value stored for the position, or the given missing value.
+     */
+    public int get(long hash, int minDepth, int missing) {
+        int slot = slot(hash);
+        int slotsPerBucket = this.replacement == Replacement.TWO_TIER ? 2 : 1;
+        for (int i = 0; i < slotsPerBucket; i++) {
+            long entry = this.slots.get(2 * (slot + i) + 1);
+            if (entry != 0 && (this.slots.get(2 * (slot + i)) ^ entry) == hash && depth(entry) >= minDepth) {
+                return (int) (entry >>> 32);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Stores a value for a position, if the replacement policy lets it take a slot.
+     *
+     * @param hash  The hash of the position.
+     * @param value The value.
+     * @param depth How much work went into the value, between 0 and 65535; larger values are
+     *              clamped.
+     */
+    public void put(long hash, int value, int depth) {
+        int generation = this.generation;
+        long entry = (long) value << 32 | (long) Math.min(Math.max(depth, 0), MAX_DEPTH) << 16 | generation;
+        int slot = slot(hash);
+        switch (this.replacement) {
+            case ALWAYS:
+                write(slot, hash, entry);
+                break;
+            case DEPTH_PREFERRED:
+                if (replaces(slot, hash, depth, generation)) {
+                    write(slot, hash, entry);
+                }
+                break;
+            default:
+                write(replaces(slot, hash, depth, generation) ? slot : slot + 1, hash, entry);
+                break;
+        }
+    }
+
+    /**
+     * Starts a new generation, after which entries stored before give way to any new entry in the
+     * depth-preferred slots.
+     */
+    public void nextGeneration() {
+        this.generation = this.generation == 0xFFFF ? 1 : this.generation + 1;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (int i = 0; i < this.slots.length(); i++) {
+            this.slots.set(i, 0);
+        }
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return The number of entries the table can hold.
+     */
+    public int getCapacity() {
+        return this.slots.length() / 2;
+    }
+
+    /**
+     * Returns whether a new entry may replace the one in a depth-preferred slot: if the slot holds
+     * the same position, an entry of an older generation, or one that isn't deeper.
+     *
+     * @param slot       The index of the slot.
+     * @param hash       The hash of the new entry.
+     * @param depth      The depth of the new entry.
+     * @param generation The current generation.
+     * @return True if the new entry should be written to the slot, false otherwise.
+     */
+    private boolean replaces(int slot, long hash, int depth, int generation) {
+        long old = this.slots.get(2 * slot + 1);
+        boolean samePosition = (this.slots.get(2 * slot) ^ old) == hash;
+        return samePosition || (old & 0xFFFF) != generation || depth >= depth(old);
+    }
+
+    /**
+     * Writes an entry to a slot.
+     *
+     * @param slot  The index of the slot.
+     * @param hash  The hash of the position.
+     * @param entry The packed value, depth and generation.
+     */
+    private void write(int slot, long hash, long entry) {
+        this.slots.set(2 * slot, hash ^ entry);
+        this.slots.set(2 * slot + 1, entry);
+    }
+
+    /**
+     * Returns the first slot a position may be stored in.
+     *
+     * @param hash The hash of the position.
+     * @return The index of the slot.
+     */
+    private int slot(long hash) {
+        return (int) hash & this.mask;
+    }
+
+    /**
+     * Returns the depth of a packed entry.
+     *
+     * @param entry The entry.
+     * @return The depth the entry was stored with.
+     */
+    private static int depth(long entry) {
+        return (int) (entry >>> 16) & MAX_DEPTH;
+    }
+}
@@ -0,0 +1,117 @@
+package snakeai;
+
+/**
+ * Zobrist hashing of game positions. The hash of a position is the exclusive or of a random
+ * 64-bit key for every cell of the snake's body, one for the cell of its head, one for the cell of
+ * its tail and one for the cell of the food. A move changes only a few of these, so games and game
+ * states keep their hash up to date in constant time per move by xor'ing the changed keys in and
+ * out.
+ * <p>
+ * Positions with the same body cells, head, tail and food always have the same hash, whatever
+ * moves led to them and in whatever game, and different positions have the same hash with a
+ * probability of about 2^-64. The order of the parts between the head and the tail isn't hashed,
+ * but it rarely differs when all of those match.
+ * <p>
+ * Keys are computed from the cell index by a fixed mixing function instead of being stored, so
+ * hashing needs no tables even on huge boards and every game agrees on every key. Cells are
+ * identified by their index, y * width + x.
+ */
+public final class Zobrist {
+    // Distinct seeds for the four kinds of key
+    private static final long BODY = 0x9E3779B97F4A7C15L;
+    private static final long HEAD = 0xC2B2AE3D27D4EB4FL;
+    private static final long TAIL = 0x165667B19E3779F9L;
+    private static final long FOOD = 0xD6E8FEB86659FD93L;
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the hash of a position from scratch, in time linear in the length of the snake.
+     *
+     * @param body The snake's body. Must not be empty.
+     * @param food The index of the food's cell, or -1 if there is no food.
+     * @return The hash of the position.
+     */
+    public static long hash(BodyView body, int food) {
+        long hash = head(body.head()) ^ tail(body.tail()) ^ food(food);
+        for (int i = 0; i < body.length(); i++) {
+            hash ^= body(body.get(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the hash of the position after a move, given the hash before it.
+     *
+     * @param hash    The hash before the move.
+     * @param oldHead The cell of the head before the move.
+     * @param oldTail The cell of the tail before the move.
+     * @param oldFood The cell of the food before the move, or -1 if there was none.
+     * @param head    The cell the head moved into.
+     * @param tail    The cell of the tail after the move.
+     * @param food    The cell of the food after the move, or -1 if there is none.
+     * @return The hash after the move.
+     */
+    public static long move(long hash, int oldHead, int oldTail, int oldFood, int head, int tail, int food) {
+        hash ^= head(oldHead) ^ head(head) ^ body(head) ^ tail(oldTail) ^ tail(tail) ^ food(oldFood) ^ food(food);
+        if (tail != oldTail) {
+            // The snake didn't eat, so the old tail left its cell
+            hash ^= body(oldTail);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the key of a body part in the given cell.
+     *
+     * @param cell The index of the cell.
+     * @return The key.
+     */
+    public static long body(int cell) {
+        return mix(cell + BODY);
+    }
+
+    /**
+     * Returns the key of the head in the given cell.
+     *
+     * @param cell The index of the cell.
+     * @return The key.
+     */
+    public static long head(int cell) {
+        return mix(cell + HEAD);
+    }
+
+    /**
+     * Returns the key of the tail in the given cell.
+     *
+     * @param cell The index of the cell.
+     * @return The key.
+     */
+    public static long tail(int cell) {
+        return mix(cell + TAIL);
+    }
+
+    /**
+     * Returns the key of the food in the given cell.
+     *
+     * @param cell The index of the cell, or -1 if there is no food.
+     * @return The key, or 0 if there is no food.
+     */
+    public static long food(int cell) {
+        return cell == -1 ? 0 : mix(cell + FOOD);
+    }
+
+    /**
+     * Scrambles a number into a key whose bits all depend on all bits of the number, using the
+     * finalizer of SplitMix64.
+     *
+     * @param z The number to scramble.
+     * @return The key.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,271 @@
+package snakeai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks GameState against a naive model: a deque of the snake's cells, copied before every move
+ * so that moves can be taken back. Random moves, undos and snapshots are made on states reset to
+ * real games that keep playing, and after every change every state must agree with its model on
+ * the body, indexOf, the occupied cells and the Zobrist hash.
+ */
+public class GameStateTest {
+    private static final int GAMES = 40;
+    private static final int MAX_MOVES = 300;
+    private static final int OPERATIONS = 40;
+
+    /**
+     * Plays random moves, undos and snapshots on states reset to small games of random sizes, and
+     * checks every state against its model after every change.
+     */
+    @Test
+    public void matchesModelThroughMovesUndosAndSnapshots() {
+        Random rand = new Random(1);
+        for (int g = 0; g < GAMES; g++) {
+            int width = 3 + rand.nextInt(20);
+            int height = 3 + rand.nextInt(20);
+            Game game = new Game(width, height, new Random(g));
+            game.reset(new RandomBot());
+            GameState state = new GameState(width, height);
+            state.setSeed(g);
+
+            // The same state is reset again and again while the real snake moves on
+            while (game.step() && game.getMoves() < MAX_MOVES) {
+                if (rand.nextInt(10) != 0) {
+                    continue;
+                }
+                state.reset(game);
+                List<Tracked> states = new ArrayList<>();
+                states.add(new Tracked(state, game.getBody()));
+                checkAll(states, width, height);
+
+                for (int i = 0; i < OPERATIONS; i++) {
+                    Tracked tracked = states.get(rand.nextInt(states.size()));
+                    int operation = rand.nextInt(10);
+                    if (operation < 6) {
+                        tracked.apply(Direction.get(rand.nextInt(Direction.COUNT)));
+                    } else if (operation < 8) {
+                        tracked.undo();
+                    } else if (operation < 9) {
+                        states.add(tracked.snapshot());
+                    } else {
+                        tracked.undo(rand.nextInt(tracked.state.getMoves() + 1));
+                    }
+                    checkAll(states, width, height);
+                }
+                state.undo(0);
+                assertEquals(0, state.getMoves());
+            }
+        }
+    }
+
+    /**
+     * Checks that states seeded alike place the same food, and so do their snapshots, however much
+     * other snapshots are used.
+     */
+    @Test
+    public void snapshotsPlaceFoodDeterministically() {
+        Game game = new Game(6, 6, new Random(7));
+        game.reset(new RandomBot());
+        GameState first = new GameState(6, 6);
+        GameState second = new GameState(6, 6);
+        first.reset(game);
+        second.reset(game);
+        first.setSeed(3);
+        second.setSeed(3);
+
+        // Using one snapshot a lot must not change the food of its parent or of other snapshots
+        GameState busy = first.snapshot();
+        GameState firstCopy = first.snapshot();
+        second.snapshot();
+        GameState secondCopy = second.snapshot();
+        Random rand = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            if (!busy.apply(Direction.get(rand.nextInt(Direction.COUNT)))) {
+                busy.undo(0);
+            }
+        }
+
+        int eaten = 0;
+        for (int i = 0; i < 2000; i++) {
+            Direction d = Direction.get(rand.nextInt(Direction.COUNT));
+            boolean moved = first.apply(d);
+            assertEquals(moved, second.apply(d));
+            assertEquals(firstCopy.apply(d), secondCopy.apply(d));
+            assertEquals(second.getFood(), first.getFood());
+            assertEquals(secondCopy.getFood(), firstCopy.getFood());
+            if (!moved) {
+                eaten += first.getFoodEaten();
+                first.undo(0);
+                second.undo(0);
+                firstCopy.undo(0);
+                secondCopy.undo(0);
+            }
+        }
+        assertTrue(eaten > 0, "No food was eaten, so no food was placed");
+    }
+
+    /**
+     * Checks that moves off the board are refused and leave the state as it was.
+     */
+    @Test
+    public void refusesDeadlyMovesWithoutChanging() {
+        Game game = new Game(4, 4, new Random(2));
+        game.reset(new RandomBot());
+        GameState state = new GameState(4, 4);
+        state.reset(game);
+        int head = state.getBody().head();
+        long hash = state.getHash();
+        for (int i = 0; i < Direction.COUNT; i++) {
+            Direction d = Direction.get(i);
+            if (state.neighbor(head, d) == -1) {
+                assertFalse(state.apply(d));
+                assertEquals(0, state.getMoves());
+                assertEquals(head, state.getBody().head());
+                assertEquals(hash, state.getHash());
+            }
+        }
+    }
+
+    /**
+     * Checks every tracked state against its model.
+     *
+     * @param states The states and their models.
+     * @param width  The width of the play area.
+     * @param height The height of the play area.
+     */
+    private static void checkAll(List<Tracked> states, int width, int height) {
+        for (Tracked tracked : states) {
+            tracked.check(width * height);
+        }
+    }
+
+    /**
+     * A state with the model of its snake and the models before each move in its undo log.
+     */
+    private static class Tracked {
+        private final GameState state;
+        private ArrayDeque<Integer> model;
+        private final List<ArrayDeque<Integer>> history;
+
+        /**
+         * Starts tracking a state that was just reset to a game with the given snake.
+         *
+         * @param state The state.
+         * @param body  The snake of the real game.
+         */
+        public Tracked(GameState state, BodyView body) {
+            this.state = state;
+            this.model = new ArrayDeque<>();
+            for (int i = 0; i < body.length(); i++) {
+                this.model.addLast(body.get(i));
+            }
+            this.history = new ArrayList<>();
+        }
+
+        /**
+         * Starts tracking a snapshot of another tracked state.
+         *
+         * @param state The snapshot.
+         * @param other The tracked state it was taken from.
+         */
+        private Tracked(GameState state, Tracked other) {
+            this.state = state;
+            this.model = new ArrayDeque<>(other.model);
+            this.history = new ArrayList<>(other.history);
+        }
+
+        /**
+         * Moves both the state and the model, unless the move is refused, which it must be exactly
+         * when the model says the move leaves the board or hits the snake.
+         *
+         * @param d The direction to move in.
+         */
+        public void apply(Direction d) {
+            int next = this.state.neighbor(this.model.peekLast(), d);
+            int food = this.state.getFood();
+            // The tail still occupies its cell when the head moves, so moving into it is deadly too
+            boolean deadly = next == -1 || this.model.contains(next);
+            assertEquals(!deadly, this.state.apply(d));
+            if (!deadly) {
+                // Models in the history may be shared with snapshots, so they are never changed
+                this.history.add(this.model);
+                this.model = new ArrayDeque<>(this.model);
+                this.model.addLast(next);
+                if (next != food) {
+                    this.model.removeFirst();
+                }
+            }
+        }
+
+        /**
+         * Takes back the last move of both the state and the model, if there is one.
+         */
+        public void undo() {
+            if (!this.history.isEmpty()) {
+                this.state.undo();
+                this.model = this.history.remove(this.history.size() - 1);
+            }
+        }
+
+        /**
+         * Takes back moves of both the state and the model until the given number are left.
+         *
+         * @param moves The number of moves to keep.
+         */
+        public void undo(int moves) {
+            this.state.undo(moves);
+            while (this.history.size() > moves) {
+                this.model = this.history.remove(this.history.size() - 1);
+            }
+        }
+
+        /**
+         * Takes a snapshot of the state and tracks it with a copy of the model.
+         *
+         * @return The tracked snapshot.
+         */
+        public Tracked snapshot() {
+            return new Tracked(this.state.snapshot(), this);
+        }
+
+        /**
+         * Checks that the state agrees with the model.
+         *
+         * @param cells The number of cells of the play area.
+         */
+        public void check(int cells) {
+            BodyView body = this.state.getBody();
+            Integer[] parts = this.model.toArray(new Integer[0]);
+            assertEquals(parts.length, body.length());
+            assertEquals(this.history.size(), this.state.getMoves());
+            assertEquals((int) parts[0], body.tail());
+            assertEquals((int) parts[parts.length - 1], body.head());
+            for (int i = 0; i < parts.length; i++) {
+                assertEquals((int) parts[i], body.get(i));
+                assertEquals(i, body.indexOf(parts[i]));
+            }
+            Set<Integer> occupied = new HashSet<>(this.model);
+            for (int cell = 0; cell < cells; cell++) {
+                assertEquals(!occupied.contains(cell), this.state.isSafe(cell));
+                assertEquals(occupied.contains(cell), body.contains(cell));
+                if (!occupied.contains(cell)) {
+                    assertEquals(-1, body.indexOf(cell));
+                }
+            }
+            assertNotEquals(-2, this.state.getFood());
+            assertEquals(Zobrist.hash(body, this.state.getFood()), this.state.getHash());
+        }
+    }
+}
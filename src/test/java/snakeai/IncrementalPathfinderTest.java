@@ -0,0 +1,109 @@
+package snakeai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks IncrementalPathfinder against searches from scratch with Pathfinder on grids whose cells
+ * keep changing while the start and the target move, the way they do under a snake.
+ */
+public class IncrementalPathfinderTest {
+    private static final int GRIDS = 200;
+    private static final int SEARCHES = 500;
+
+    /**
+     * Repairs searches while walls appear and disappear, the start follows the path found or jumps
+     * elsewhere, and the target moves now and then, and checks after every search that a path is
+     * found exactly when one exists, that it is as short as the one found from scratch, and that
+     * its first step leads along a shortest path.
+     */
+    @Test
+    public void findsShortestPathsWhileCellsChange() {
+        Random rand = new Random(1);
+        for (int g = 0; g < GRIDS; g++) {
+            int width = 2 + rand.nextInt(30);
+            int height = 2 + rand.nextInt(30);
+            int cells = width * height;
+            final boolean[] blocked = new boolean[cells];
+            double density = 0.1 + 0.3 * rand.nextDouble();
+            for (int cell = 0; cell < cells; cell++) {
+                blocked[cell] = rand.nextDouble() < density;
+            }
+            Pathfinder.Traversal open = new Pathfinder.Traversal() {
+                @Override
+                public boolean canEnter(int cell) {
+                    return !blocked[cell];
+                }
+            };
+            IncrementalPathfinder incremental = new IncrementalPathfinder(width, height);
+            Pathfinder scratch = new Pathfinder(width, height);
+            int start = rand.nextInt(cells);
+            int target = openCell(blocked, width, incremental, rand);
+
+            for (int i = 0; i < SEARCHES; i++) {
+                // Flip a few cells, as a moving snake does with its head and tail
+                int flips = rand.nextInt(4);
+                for (int f = 0; f < flips; f++) {
+                    int cell = rand.nextInt(cells);
+                    if (cell != target) {
+                        blocked[cell] = !blocked[cell];
+                        incremental.cellChanged(cell % width, cell / width);
+                    }
+                }
+                if (rand.nextInt(20) == 0) {
+                    target = openCell(blocked, width, incremental, rand);
+                }
+
+                Direction d = incremental.findPath(start, target, open);
+                Direction expected = scratch.findPath(start, target, open);
+                int length = scratch.getPathLength();
+                assertEquals(length, incremental.getPathLength());
+                if (expected == null) {
+                    assertNull(d);
+                } else {
+                    assertNotNull(d);
+                    int next = scratch.neighbor(start, d);
+                    assertTrue(next != -1 && !blocked[next]);
+                    if (next != target) {
+                        scratch.findPath(next, target, open);
+                        assertEquals(length - 1, scratch.getPathLength());
+                    }
+                }
+
+                if (d != null && rand.nextInt(10) != 0) {
+                    start = scratch.neighbor(start, d);
+                } else {
+                    start = rand.nextInt(cells);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a random cell that isn't blocked, unblocking one if none is found.
+     *
+     * @param blocked     Whether each cell is blocked.
+     * @param width       The width of the grid.
+     * @param incremental The pathfinder to report an unblocked cell to.
+     * @param rand        The source of randomness.
+     * @return The index of an open cell.
+     */
+    private static int openCell(boolean[] blocked, int width, IncrementalPathfinder incremental, Random rand) {
+        for (int i = 0; i < 100; i++) {
+            int cell = rand.nextInt(blocked.length);
+            if (!blocked[cell]) {
+                return cell;
+            }
+        }
+        int cell = rand.nextInt(blocked.length);
+        blocked[cell] = false;
+        incremental.cellChanged(cell % width, cell / width);
+        return cell;
+    }
+}
@@ -0,0 +1,168 @@
+package snakeai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the replacement policies of TranspositionTable and that threads sharing a table never
+ * read a value stored for another position.
+ */
+public class TranspositionTableTest {
+    private static final int MISSING = Integer.MIN_VALUE;
+    // Hashes that share a slot in a table of two slots, whatever the policy
+    private static final long FIRST = 0x1234_5678_0000_0000L;
+    private static final long SECOND = 0x8765_4321_0000_0000L;
+    private static final long THIRD = 0x0F0F_0F0F_0000_0000L;
+    private static final int THREADS = 4;
+    private static final int OPERATIONS = 2_000_000;
+
+    /**
+     * Checks that values are found under their hash, deep enough, and only until the table is
+     * cleared.
+     */
+    @Test
+    public void storesAndFindsValues() {
+        for (TranspositionTable.Replacement replacement : TranspositionTable.Replacement.values()) {
+            TranspositionTable table = new TranspositionTable(1024, replacement);
+            assertEquals(MISSING, table.get(FIRST, 0, MISSING));
+            table.put(FIRST, -42, 5);
+            assertEquals(-42, table.get(FIRST, 5, MISSING));
+            assertEquals(MISSING, table.get(FIRST, 6, MISSING));
+            assertEquals(MISSING, table.get(FIRST + 1, 0, MISSING));
+            table.put(FIRST, 7, 1);
+            assertEquals(7, table.get(FIRST, 0, MISSING));
+            table.clear();
+            assertEquals(MISSING, table.get(FIRST, 0, MISSING));
+        }
+    }
+
+    /**
+     * Checks that a new entry always evicts a colliding one under ALWAYS.
+     */
+    @Test
+    public void alwaysKeepsNewest() {
+        TranspositionTable table = new TranspositionTable(2, TranspositionTable.Replacement.ALWAYS);
+        table.put(FIRST, 1, 10);
+        table.put(SECOND, 2, 0);
+        assertEquals(MISSING, table.get(FIRST, 0, MISSING));
+        assertEquals(2, table.get(SECOND, 0, MISSING));
+    }
+
+    /**
+     * Checks that a shallower entry only evicts a colliding one under DEPTH_PREFERRED once a new
+     * generation has started.
+     */
+    @Test
+    public void depthPreferredKeepsDeepestOfGeneration() {
+        TranspositionTable table = new TranspositionTable(2, TranspositionTable.Replacement.DEPTH_PREFERRED);
+        table.put(FIRST, 1, 10);
+        table.put(SECOND, 2, 9);
+        assertEquals(1, table.get(FIRST, 0, MISSING));
+        assertEquals(MISSING, table.get(SECOND, 0, MISSING));
+        table.put(SECOND, 2, 10);
+        assertEquals(2, table.get(SECOND, 0, MISSING));
+
+        table.put(FIRST, 1, 20);
+        table.nextGeneration();
+        table.put(SECOND, 2, 0);
+        assertEquals(MISSING, table.get(FIRST, 0, MISSING));
+        assertEquals(2, table.get(SECOND, 0, MISSING));
+    }
+
+    /**
+     * Checks that TWO_TIER keeps the deepest entry of the generation along with the newest.
+     */
+    @Test
+    public void twoTierKeepsDeepestAndNewest() {
+        TranspositionTable table = new TranspositionTable(2, TranspositionTable.Replacement.TWO_TIER);
+        table.put(FIRST, 1, 10);
+        table.put(SECOND, 2, 0);
+        table.put(THIRD, 3, 0);
+        assertEquals(1, table.get(FIRST, 0, MISSING));
+        assertEquals(MISSING, table.get(SECOND, 0, MISSING));
+        assertEquals(3, table.get(THIRD, 0, MISSING));
+    }
+
+    /**
+     * Checks that capacities are rounded up to powers of two and that invalid ones are rejected.
+     */
+    @Test
+    public void roundsCapacity() {
+        assertEquals(2, new TranspositionTable(1, TranspositionTable.Replacement.ALWAYS).getCapacity());
+        assertEquals(4, new TranspositionTable(3, TranspositionTable.Replacement.ALWAYS).getCapacity());
+        assertEquals(1024, new TranspositionTable(1024, TranspositionTable.Replacement.TWO_TIER).getCapacity());
+        assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() {
+                new TranspositionTable(0, TranspositionTable.Replacement.ALWAYS);
+            }
+        });
+    }
+
+    /**
+     * Has several threads store and look up values derived from their hash in a small shared table,
+     * so that they often write the same slots at once, and checks that no lookup ever returns a
+     * value that wasn't stored for its hash.
+     *
+     * @throws InterruptedException If the test is interrupted.
+     */
+    @Test
+    public void concurrentLookupsNeverReturnOtherValues() throws InterruptedException {
+        for (final TranspositionTable.Replacement replacement : TranspositionTable.Replacement.values()) {
+            final TranspositionTable table = new TranspositionTable(64, replacement);
+            final AtomicLong hits = new AtomicLong();
+            final AtomicLong wrong = new AtomicLong();
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < threads.length; t++) {
+                final long seed = t;
+                threads[t] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Random rand = new Random(seed);
+                        for (int i = 0; i < OPERATIONS; i++) {
+                            long hash = Zobrist.body(rand.nextInt(200));
+                            int value = valueOf(hash);
+                            if (rand.nextBoolean()) {
+                                table.put(hash, value, rand.nextInt(10));
+                            } else {
+                                int found = table.get(hash, 0, MISSING);
+                                if (found != MISSING) {
+                                    hits.incrementAndGet();
+                                    if (found != value) {
+                                        wrong.incrementAndGet();
+                                    }
+                                }
+                            }
+                            if (rand.nextInt(5000) == 0) {
+                                table.nextGeneration();
+                            }
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(hits.get() > 0, replacement.toString());
+            assertEquals(0, wrong.get(), replacement.toString());
+        }
+    }
+
+    /**
+     * Returns the value the stress test stores for a hash.
+     *
+     * @param hash The hash.
+     * @return A value that differs between the hashes used.
+     */
+    private static int valueOf(long hash) {
+        return (int) (hash >>> 17) ^ 0x5A5A;
+    }
+}
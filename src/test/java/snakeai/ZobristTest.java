@@ -0,0 +1,124 @@
+package snakeai;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the hashes games and game states keep up to date move by move always equal the hash
+ * of their position computed from scratch, and that the hash depends on the position alone.
+ */
+public class ZobristTest {
+    private static final int SIZE = 8;
+    private static final int GAMES = 5;
+    private static final int MAX_MOVES = 400;
+
+    /**
+     * Plays games with every bot and checks the game's hash after every move.
+     */
+    @Test
+    public void gameHashMatchesHashFromScratch() {
+        for (SnakeBot bot : Bots.createAll()) {
+            for (int i = 0; i < GAMES; i++) {
+                Game game = new Game(SIZE, SIZE, new Random(i));
+                game.reset(bot);
+                assertEquals(hash(game), game.getHash(), bot.getClass().getSimpleName());
+                while (game.getMoves() < MAX_MOVES && game.step()) {
+                    assertEquals(hash(game), game.getHash(), bot.getClass().getSimpleName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks a one-cell snake around a square both ways and to a corner of it by both routes, with
+     * the food out of the way, and checks that every route to a position gives it the same hash.
+     */
+    @Test
+    public void equalPositionsHaveEqualHashes() {
+        Game game = new Game(SIZE, SIZE, new Random(3));
+        game.reset(new RandomBot(), Arrays.asList(new Point(2, 2)), new Point(7, 7));
+        GameState state = new GameState(SIZE, SIZE);
+        state.reset(game);
+        long start = state.getHash();
+
+        apply(state, Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP);
+        assertEquals(start, state.getHash());
+        state.undo(0);
+        apply(state, Direction.DOWN, Direction.RIGHT, Direction.UP, Direction.LEFT);
+        assertEquals(start, state.getHash());
+        state.undo(0);
+
+        apply(state, Direction.RIGHT, Direction.DOWN);
+        long rightFirst = state.getHash();
+        state.undo(0);
+        apply(state, Direction.DOWN, Direction.RIGHT);
+        assertEquals(rightFirst, state.getHash());
+        assertEquals(Zobrist.hash(state.getBody(), state.getFood()), state.getHash());
+        assertNotEquals(start, rightFirst);
+    }
+
+    /**
+     * Checks that snakes filling the same square with the same head, tail and food hash alike
+     * however the parts in between are ordered, and that moving the ends or the food changes the
+     * hash.
+     */
+    @Test
+    public void hashDependsOnCellsEndsAndFood() {
+        List<Point> rows = Arrays.asList(new Point(0, 0), new Point(1, 0), new Point(2, 0), new Point(2, 1),
+                new Point(1, 1), new Point(0, 1), new Point(0, 2), new Point(1, 2), new Point(2, 2));
+        List<Point> columns = Arrays.asList(new Point(0, 0), new Point(0, 1), new Point(0, 2), new Point(1, 2),
+                new Point(1, 1), new Point(1, 0), new Point(2, 0), new Point(2, 1), new Point(2, 2));
+        List<Point> reversed = new ArrayList<>(rows);
+        Collections.reverse(reversed);
+        long square = hash(rows, new Point(5, 5));
+        assertEquals(square, hash(columns, new Point(5, 5)));
+        assertNotEquals(square, hash(rows, new Point(5, 6)));
+        assertNotEquals(square, hash(reversed, new Point(5, 5)));
+    }
+
+    /**
+     * Returns the hash of a game's position from scratch.
+     *
+     * @param game The game.
+     * @return The hash of the game's body and food.
+     */
+    private static long hash(Game game) {
+        Point food = game.getFoodPos();
+        return Zobrist.hash(game.getBody(), food == null ? -1 : food.y * SIZE + food.x);
+    }
+
+    /**
+     * Returns the hash a game starts with for the given snake and food.
+     *
+     * @param body The cells of the snake, from the tail to the head.
+     * @param food The cell of the food.
+     * @return The game's hash.
+     */
+    private static long hash(List<Point> body, Point food) {
+        Game game = new Game(SIZE, SIZE, new Random(0));
+        game.reset(new RandomBot(), body, food);
+        return game.getHash();
+    }
+
+    /**
+     * Applies moves to a state, checking that none is refused.
+     *
+     * @param state The state.
+     * @param moves The moves, in order.
+     */
+    private static void apply(GameState state, Direction... moves) {
+        for (Direction d : moves) {
+            assertTrue(state.apply(d), d.toString());
+        }
+    }
+}